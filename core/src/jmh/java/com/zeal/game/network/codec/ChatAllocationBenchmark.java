@@ -0,0 +1,104 @@
+package com.zeal.game.network.codec;
+
+import com.zeal.game.network.ChatMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation per chat message, with and without the {@link ChatMessage} pool. Meant to be read
+ * with {@code -prof gc} (on by default in the jmh task): {@code gc.alloc.rate.norm} is bytes per
+ * message.
+ * <ul>
+ * <li>decode: a chat frame through {@link GameMessageDecoder}. Pooled recycles the message after
+ * use, as the handlers do. Unpooled never recycles, so the pool is always empty and every decode
+ * allocates a message, which is what decoding cost before pooling.</li>
+ * <li>broadcast: the server stamping a relayed line and encoding it once, with a pooled
+ * instance ({@code newInstance}/{@code recycle}) against a constructed one.</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ChatAllocationBenchmark {
+    private static final String SENDER = "benchmark";
+    private static final String CONTENT = "A typical chat line of a few dozen characters.";
+
+    private final long epochMillis = System.currentTimeMillis();
+    private EmbeddedChannel decoder;
+    private ByteBuf frame;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        decoder = new EmbeddedChannel();
+        ProtocolSession session = ProtocolSession.install(decoder, epochMillis);
+        session.setRemoteEpoch(epochMillis);
+        session.putPlayerName(42, SENDER);
+        decoder.pipeline().addLast(new GameMessageDecoder());
+
+        ChatMessage line = new ChatMessage(42, SENDER, CONTENT, epochMillis);
+        line.setSequence(1000);
+        line.setSenderSequence(7);
+        ByteBuf encoded = GameMessageEncoder.encode(ByteBufAllocator.DEFAULT, line, epochMillis);
+        frame = Unpooled.unreleasableBuffer(Unpooled.directBuffer(encoded.readableBytes()).writeBytes(encoded));
+        encoded.release();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        decoder.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public long decodePooled() {
+        ChatMessage message = decode();
+        long sequence = message.getSequence();
+        message.recycle();
+        return sequence;
+    }
+
+    @Benchmark
+    public long decodeUnpooled() {
+        return decode().getSequence();
+    }
+
+    @Benchmark
+    public int broadcastPooled() {
+        ChatMessage stamped = ChatMessage.newInstance(42, SENDER, CONTENT, epochMillis);
+        try {
+            return encodeAndRelease(stamped);
+        } finally {
+            stamped.recycle();
+        }
+    }
+
+    @Benchmark
+    public int broadcastUnpooled() {
+        return encodeAndRelease(new ChatMessage(42, SENDER, CONTENT, epochMillis));
+    }
+
+    private ChatMessage decode() {
+        // the unreleasable wrapper lets the decoder "release" the same frame every time
+        decoder.writeInbound(frame.duplicate());
+        return decoder.readInbound();
+    }
+
+    private int encodeAndRelease(ChatMessage message) {
+        ByteBuf out = GameMessageEncoder.encode(ByteBufAllocator.DEFAULT, message, epochMillis);
+        int length = out.readableBytes();
+        out.release();
+        return length;
+    }
+}
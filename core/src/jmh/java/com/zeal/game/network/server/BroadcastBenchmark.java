@@ -0,0 +1,96 @@
+package com.zeal.game.network.server;
+
+import com.zeal.game.network.ChatMessage;
+import com.zeal.game.network.codec.GameMessageEncoder;
+import com.zeal.game.network.codec.ProtocolSession;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.handler.codec.LengthFieldPrepender;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one chat broadcast to N clients: every channel encoding the message itself (how
+ * {@code GameServer.broadcast} used to work) against encoding it once and handing each channel a
+ * {@code retainedDuplicate()} of the frame through a {@link ChannelGroup} (how it works now).
+ * The channels are {@link EmbeddedChannel}s with the server's outbound codec, so the numbers are
+ * encode and pipeline cost without socket I/O. Outbound frames are released after every
+ * operation in both variants.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BroadcastBenchmark {
+    @Param({"10", "100", "1000"})
+    public int clients;
+
+    private final long epochMillis = System.currentTimeMillis();
+    private EmbeddedChannel[] channels;
+    private ChannelGroup group;
+    private ChatMessage message;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        channels = new EmbeddedChannel[clients];
+        group = new DefaultChannelGroup("benchmark", ImmediateEventExecutor.INSTANCE);
+        for (int i = 0; i < clients; i++) {
+            EmbeddedChannel channel = new EmbeddedChannel();
+            ProtocolSession.install(channel, epochMillis);
+            channel.pipeline().addLast(new LengthFieldPrepender(4), new GameMessageEncoder());
+            channels[i] = channel;
+            group.add(channel);
+        }
+        message = new ChatMessage(42, "benchmark", "A typical chat line of a few dozen characters.", epochMillis);
+        message.setSequence(1000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (EmbeddedChannel channel : channels) {
+            channel.finishAndReleaseAll();
+        }
+    }
+
+    /** The old path: the message object goes to every channel and each pipeline encodes it. */
+    @Benchmark
+    public int encodePerChannel() {
+        for (EmbeddedChannel channel : channels) {
+            channel.writeAndFlush(message);
+        }
+        return drain();
+    }
+
+    /** The current path: one encode, then the group writes a retained duplicate per channel. */
+    @Benchmark
+    public int encodeOnce() {
+        ByteBuf frame = GameMessageEncoder.encode(ByteBufAllocator.DEFAULT, message, epochMillis);
+        group.writeAndFlush(frame);
+        return drain();
+    }
+
+    private int drain() {
+        int frames = 0;
+        for (EmbeddedChannel channel : channels) {
+            Object out;
+            while ((out = channel.readOutbound()) != null) {
+                ((ByteBuf) out).release();
+                frames++;
+            }
+        }
+        return frames;
+    }
+}
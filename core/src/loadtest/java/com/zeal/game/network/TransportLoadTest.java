@@ -0,0 +1,111 @@
+package com.zeal.game.network;
+
+import com.zeal.game.network.client.GameClient;
+import com.zeal.game.network.server.GameServer;
+import com.zeal.game.network.server.ServerConfig;
+import io.netty.channel.EventLoopGroup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loopback load test that runs the chat server and a set of clients once per available
+ * transport and prints delivered messages/second and round-trip latency percentiles. All clients
+ * share one small event loop group, like the game client does, so the numbers reflect the
+ * server rather than how many client threads the machine can run.
+ * <p>
+ * Usage: {@code TransportLoadTest [clients] [messagesPerClient]}
+ */
+public class TransportLoadTest {
+    private static final String HOST = "127.0.0.1";
+    // leaves most cores to the server under test
+    private static final int CLIENT_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int messagesPerClient = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        for (TransportType transport : TransportType.values()) {
+            if (!transport.isAvailable()) {
+                System.out.println(transport + ": not available on this platform, skipped");
+                continue;
+            }
+            run(transport, clients, messagesPerClient);
+        }
+    }
+
+    private static void run(TransportType transport, int clientCount, int messagesPerClient) throws Exception {
+        // clients send as fast as they can; lift the per-client flood limits so they do not skew the numbers
+        GameServer server = new GameServer(0, new ServerConfig().setTransport(transport)
+                .setRateLimitMessages(1_000_000, 1_000_000)
+                .setRateLimitBytes(1 << 30, 1 << 30));
+        server.start();
+        if (server.getPort() == 0) {
+            System.out.println(transport + ": server failed to start");
+            return;
+        }
+
+        int expectedEchoes = clientCount * messagesPerClient;
+        long[] latencies = new long[expectedEchoes];
+        AtomicInteger latencyCount = new AtomicInteger();
+        AtomicLong delivered = new AtomicLong();
+        CountDownLatch echoes = new CountDownLatch(expectedEchoes);
+
+        EventLoopGroup clientGroup = transport.newEventLoopGroup(CLIENT_THREADS);
+        List<GameClient> clients = new ArrayList<>(clientCount);
+        try {
+            for (int i = 0; i < clientCount; i++) {
+                String name = "bot-" + i;
+                GameClient client = new GameClient(HOST, server.getPort(), name, clientGroup);
+                client.setTransport(transport);
+                // Every broadcast counts towards throughput; only our own echoes carry a usable send time.
+                client.setMessageListener(message -> {
+                    delivered.incrementAndGet();
+                    if (name.equals(message.getSender()) && message.getContent().startsWith("lt:")) {
+                        long sentAt = Long.parseLong(message.getContent().substring(3));
+                        int slot = latencyCount.getAndIncrement();
+                        if (slot < latencies.length) latencies[slot] = System.nanoTime() - sentAt;
+                        echoes.countDown();
+                    }
+                });
+                client.connect().get(5, TimeUnit.SECONDS);
+                clients.add(client);
+            }
+
+            long start = System.nanoTime();
+            for (int m = 0; m < messagesPerClient; m++) {
+                for (GameClient client : clients) {
+                    client.sendMessage("lt:" + System.nanoTime());
+                }
+            }
+            boolean complete = echoes.await(60, TimeUnit.SECONDS);
+            long elapsed = System.nanoTime() - start;
+
+            int samples = Math.min(latencyCount.get(), latencies.length);
+            long[] sorted = Arrays.copyOf(latencies, samples);
+            Arrays.sort(sorted);
+            double seconds = elapsed / 1_000_000_000.0;
+            System.out.printf("%-5s clients=%d sent=%d delivered=%d (%.0f msg/s) p50=%.2fms p99=%.2fms%s%n",
+                    transport, clientCount, expectedEchoes, delivered.get(), delivered.get() / seconds,
+                    percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99),
+                    complete ? "" : " [timed out, " + samples + " echoes]");
+        } finally {
+            for (GameClient client : clients) {
+                client.disconnect();
+            }
+            clientGroup.shutdownGracefully();
+            server.shutdown();
+        }
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) return Double.NaN;
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,159 @@
+package com.zeal.game.network.loadtest;
+
+import com.zeal.game.network.ChatMessage;
+import com.zeal.game.network.HelloMessage;
+import com.zeal.game.network.JoinRoomMessage;
+import com.zeal.game.network.NetworkConstants;
+import com.zeal.game.network.NetworkMessage;
+import com.zeal.game.network.RoomJoinedMessage;
+import com.zeal.game.network.SnapshotAckMessage;
+import com.zeal.game.network.WelcomeMessage;
+import com.zeal.game.network.WorldDeltaMessage;
+import com.zeal.game.network.codec.GameMessageDecoder;
+import com.zeal.game.network.codec.GameMessageEncoder;
+import com.zeal.game.network.codec.ProtocolSession;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+import io.netty.util.concurrent.ScheduledFuture;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One simulated player: speaks the same protocol as {@code GameClient} but has no UI, snapshot
+ * reconstruction or own event loop. Its chat lines carry {@link System#nanoTime()} in the
+ * timestamp field; the server relays timestamps unchanged, so when the bot sees its own line
+ * come back the latency is simply {@code nanoTime() - getTimestamp()}. Bots therefore run in
+ * rooms of their own, where nobody interprets those timestamps as wall-clock time.
+ */
+class BotConnection extends SimpleChannelInboundHandler<NetworkMessage> {
+    // one long string that message bodies are cut from, so sends do not build payloads
+    private static final String PAYLOAD = buildPayload(LoadGenerator.MAX_MESSAGE_SIZE);
+
+    private final String name;
+    private final String room;
+    private final LoadGenerator.Options options;
+    private final LoadStats stats;
+    private final CountDownLatch ready;
+
+    private Channel channel;
+    private int playerId = NetworkConstants.SERVER_PLAYER_ID;
+    private boolean joined;
+    private ScheduledFuture<?> sender;
+
+    BotConnection(String name, String room, LoadGenerator.Options options, LoadStats stats, CountDownLatch ready) {
+        this.name = name;
+        this.room = room;
+        this.options = options;
+        this.stats = stats;
+        this.ready = ready;
+    }
+
+    /** Pipeline of a bot channel; mirrors the client's so the server cannot tell the difference. */
+    ChannelInitializer<Channel> initializer() {
+        return new ChannelInitializer<Channel>() {
+            @Override
+            protected void initChannel(Channel ch) {
+                ProtocolSession.install(ch, System.currentTimeMillis());
+                ch.pipeline().addLast(
+                        new LengthFieldBasedFrameDecoder(1048576, 0, 4, 0, 4),
+                        new GameMessageDecoder(),
+                        BotConnection.this,
+                        new LengthFieldPrepender(4),
+                        new GameMessageEncoder());
+            }
+        };
+    }
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) {
+        channel = ctx.channel();
+        channel.writeAndFlush(new HelloMessage(name), channel.voidPromise());
+        ctx.fireChannelActive();
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, NetworkMessage msg) {
+        if (msg instanceof ChatMessage) {
+            ChatMessage chat = (ChatMessage) msg;
+            try {
+                onChat(chat);
+            } finally {
+                chat.recycle();
+            }
+        } else if (msg instanceof RoomJoinedMessage) {
+            // room names are already in the server's normalized form, so they compare as sent
+            if (!joined && room.equals(((RoomJoinedMessage) msg).getRoom())) {
+                joined = true;
+                ready.countDown();
+            }
+        } else if (msg instanceof WelcomeMessage) {
+            playerId = ((WelcomeMessage) msg).getPlayerId();
+            channel.writeAndFlush(new JoinRoomMessage(room), channel.voidPromise());
+        } else if (msg instanceof WorldDeltaMessage) {
+            // keep the server's snapshot baseline moving like a real client would
+            channel.writeAndFlush(new SnapshotAckMessage(((WorldDeltaMessage) msg).getTick()), channel.voidPromise());
+        }
+    }
+
+    private void onChat(ChatMessage chat) {
+        // join and leave announcements are not load
+        if (chat.getSenderId() == NetworkConstants.SERVER_PLAYER_ID) return;
+        stats.onReceived();
+        if (chat.getSenderId() == playerId) {
+            stats.onEcho(System.nanoTime() - chat.getTimestamp());
+        }
+    }
+
+    /** Start sending at the configured rate; runs on this bot's event loop. */
+    void startSending() {
+        channel.eventLoop().execute(() -> {
+            long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.rate);
+            // random phase so bots do not all fire on the same tick
+            long initialDelay = ThreadLocalRandom.current().nextLong(periodNanos);
+            sender = channel.eventLoop().scheduleAtFixedRate(this::sendOne, initialDelay, periodNanos, TimeUnit.NANOSECONDS);
+        });
+    }
+
+    void stopSending() {
+        channel.eventLoop().execute(() -> {
+            if (sender != null) sender.cancel(false);
+        });
+    }
+
+    private void sendOne() {
+        if (!channel.isActive()) return;
+        if (!channel.isWritable()) {
+            // the server is not keeping up; skipping is the honest signal, queueing would hide it
+            stats.onSkipped();
+            return;
+        }
+        int size = options.minSize == options.maxSize ? options.minSize
+                : ThreadLocalRandom.current().nextInt(options.minSize, options.maxSize + 1);
+        ChatMessage message = ChatMessage.newInstance(playerId, name, PAYLOAD.substring(0, size), System.nanoTime());
+        try {
+            // on the event loop the pipeline encodes inline, so the message can go back to the pool
+            channel.writeAndFlush(message, channel.voidPromise());
+        } finally {
+            message.recycle();
+        }
+        stats.onSent();
+    }
+
+    void close() {
+        if (channel != null) channel.close();
+    }
+
+    private static String buildPayload(int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + i % 26));
+        }
+        return sb.toString();
+    }
+}
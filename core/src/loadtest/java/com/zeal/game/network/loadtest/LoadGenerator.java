@@ -0,0 +1,196 @@
+package com.zeal.game.network.loadtest;
+
+import com.zeal.game.network.TransportType;
+import com.zeal.game.network.metrics.LatencyHistogram;
+import com.zeal.game.network.server.GameServer;
+import com.zeal.game.network.server.ServerConfig;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless load generator for the chat server. Opens many bot connections that share a single
+ * event loop group, has each send chat lines at a fixed rate with sizes drawn uniformly from a
+ * range, and reports throughput and end-to-end latency (send to own echo) percentiles.
+ * <p>
+ * By default an embedded server is started on loopback, so the whole run is self-contained;
+ * pass {@code --port} to target a server that is already running (its maximum frame size must
+ * then fit {@code --maxSize}). With {@code --maxP99Millis} the process exits with status 1 when
+ * the measured p99 exceeds the budget, which lets a release pipeline gate on server capacity.
+ * <p>
+ * Usage: {@code LoadGenerator [--clients=1000] [--rate=2] [--minSize=16] [--maxSize=128]
+ * [--roomSize=50] [--duration=30] [--warmup=5] [--threads=0] [--host=127.0.0.1] [--port=N]
+ * [--maxP99Millis=N]}
+ */
+public class LoadGenerator {
+    static final int MAX_MESSAGE_SIZE = 4096;
+    // chat frame fields around the content: opcode, ids, sequences, length and timestamp
+    private static final int CHAT_FRAME_OVERHEAD = 64;
+    private static final int CONNECT_BATCH = 100;
+
+    /** Run parameters, parsed from {@code --name=value} arguments. */
+    static final class Options {
+        int clients = 1000;
+        double rate = 2;             // messages per second per bot
+        int minSize = 16;            // chat content length, characters
+        int maxSize = 128;
+        int roomSize = 50;           // bots per room; fan-out grows with its square
+        int durationSeconds = 30;
+        int warmupSeconds = 5;
+        int threads = 0;             // 0 = Netty default
+        String host = "127.0.0.1";
+        int port = 0;                // 0 = start an embedded server
+        double maxP99Millis = 0;     // 0 = report only
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                int eq = arg.indexOf('=');
+                if (!arg.startsWith("--") || eq < 0) throw new IllegalArgumentException("Expected --name=value: " + arg);
+                String name = arg.substring(2, eq);
+                String value = arg.substring(eq + 1);
+                switch (name) {
+                    case "clients": options.clients = Integer.parseInt(value); break;
+                    case "rate": options.rate = Double.parseDouble(value); break;
+                    case "minSize": options.minSize = Integer.parseInt(value); break;
+                    case "maxSize": options.maxSize = Integer.parseInt(value); break;
+                    case "roomSize": options.roomSize = Integer.parseInt(value); break;
+                    case "duration": options.durationSeconds = Integer.parseInt(value); break;
+                    case "warmup": options.warmupSeconds = Integer.parseInt(value); break;
+                    case "threads": options.threads = Integer.parseInt(value); break;
+                    case "host": options.host = value; break;
+                    case "port": options.port = Integer.parseInt(value); break;
+                    case "maxP99Millis": options.maxP99Millis = Double.parseDouble(value); break;
+                    default: throw new IllegalArgumentException("Unknown option --" + name);
+                }
+            }
+            if (options.clients <= 0 || options.rate <= 0 || options.roomSize <= 0) {
+                throw new IllegalArgumentException("clients, rate and roomSize must be positive");
+            }
+            options.minSize = Math.max(0, Math.min(options.minSize, MAX_MESSAGE_SIZE));
+            options.maxSize = Math.max(options.minSize, Math.min(options.maxSize, MAX_MESSAGE_SIZE));
+            return options;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        TransportType transport = TransportType.preferred();
+
+        GameServer server = null;
+        int port = options.port;
+        if (port == 0) {
+            // bots may be configured above the per-client flood limits; measure the server, not the limiter
+            server = new GameServer(0, new ServerConfig().setTransport(transport)
+                    .setRateLimitMessages(1_000_000, 1_000_000)
+                    .setRateLimitBytes(1 << 30, 1 << 30)
+                    // the default 4 KiB frame cap would close bots sending lines near MAX_MESSAGE_SIZE
+                    .setMaxFrameBytes(MAX_MESSAGE_SIZE + CHAT_FRAME_OVERHEAD));
+            server.start();
+            port = server.getPort();
+            if (port == 0) {
+                System.err.println("Embedded server failed to start");
+                System.exit(2);
+            }
+        }
+
+        EventLoopGroup group = transport.newEventLoopGroup(options.threads);
+        LoadStats stats = new LoadStats();
+        List<BotConnection> bots = new ArrayList<>(options.clients);
+        boolean passed = true;
+        try {
+            connectAll(group, transport, port, options, stats, bots);
+
+            System.out.printf("%d bots in %d rooms, %.1f msg/s each, %d-%d chars, %s transport%n",
+                    bots.size(), (bots.size() + options.roomSize - 1) / options.roomSize, options.rate,
+                    options.minSize, options.maxSize, transport);
+            for (BotConnection bot : bots) {
+                bot.startSending();
+            }
+            TimeUnit.SECONDS.sleep(options.warmupSeconds);
+            stats.reset();
+
+            long start = System.nanoTime();
+            for (int second = 1; second <= options.durationSeconds; second++) {
+                TimeUnit.SECONDS.sleep(1);
+                if (second % 5 == 0 || second == options.durationSeconds) {
+                    System.out.printf("  %3ds sent=%d received=%d p99=%.2fms%n", second, stats.getSent(),
+                            stats.getReceived(), millis(stats.getLatency().getPercentile(0.99)));
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            for (BotConnection bot : bots) {
+                bot.stopSending();
+            }
+            passed = report(stats, seconds, options);
+            if (server != null) {
+                System.out.println(server.getMonitor().dump());
+            }
+        } finally {
+            for (BotConnection bot : bots) {
+                bot.close();
+            }
+            group.shutdownGracefully().syncUninterruptibly();
+            if (server != null) {
+                server.shutdown();
+            }
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Connects in batches (so the accept backlog is not overrun) and waits until every bot has
+     * been welcomed and has joined its room.
+     */
+    private static void connectAll(EventLoopGroup group, TransportType transport, int port, Options options,
+                                   LoadStats stats, List<BotConnection> bots) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(options.clients);
+        Bootstrap bootstrap = new Bootstrap()
+                .group(group)
+                .channel(transport.socketChannelClass())
+                .option(ChannelOption.TCP_NODELAY, true);
+        List<ChannelFuture> batch = new ArrayList<>(CONNECT_BATCH);
+        for (int i = 0; i < options.clients; i++) {
+            BotConnection bot = new BotConnection("bot-" + i, "loadtest-" + (i / options.roomSize), options, stats, ready);
+            batch.add(bootstrap.clone().handler(bot.initializer()).connect(options.host, port));
+            bots.add(bot);
+            if (batch.size() == CONNECT_BATCH || i == options.clients - 1) {
+                for (ChannelFuture future : batch) {
+                    if (!future.await(10, TimeUnit.SECONDS) || !future.isSuccess()) {
+                        throw new IllegalStateException("Bot failed to connect", future.cause());
+                    }
+                }
+                batch.clear();
+            }
+        }
+        if (!ready.await(30, TimeUnit.SECONDS)) {
+            throw new IllegalStateException((ready.getCount()) + " bots never joined their room");
+        }
+    }
+
+    private static boolean report(LoadStats stats, double seconds, Options options) {
+        LatencyHistogram latency = stats.getLatency();
+        double p99 = millis(latency.getPercentile(0.99));
+        System.out.printf("sent %.0f msg/s, delivered %.0f msg/s, skipped (unwritable) %d%n",
+                stats.getSent() / seconds, stats.getReceived() / seconds, stats.getSkipped());
+        System.out.printf("latency p50=%.3fms p99=%.3fms p999=%.3fms max=%.3fms (%d samples)%n",
+                millis(latency.getPercentile(0.50)), p99, millis(latency.getPercentile(0.999)),
+                millis(latency.getMax()), latency.getCount());
+        if (options.maxP99Millis > 0 && p99 > options.maxP99Millis) {
+            System.out.printf("FAIL: p99 %.3fms exceeds budget of %.3fms%n", p99, options.maxP99Millis);
+            return false;
+        }
+        return true;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,53 @@
+package com.zeal.game.network.loadtest;
+
+import com.zeal.game.network.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Counters shared by every bot; all updates are lock-free. */
+class LoadStats {
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    void onSent() {
+        sent.increment();
+    }
+
+    void onReceived() {
+        received.increment();
+    }
+
+    void onSkipped() {
+        skipped.increment();
+    }
+
+    void onEcho(long latencyNanos) {
+        latency.record(latencyNanos);
+    }
+
+    long getSent() {
+        return sent.sum();
+    }
+
+    long getReceived() {
+        return received.sum();
+    }
+
+    long getSkipped() {
+        return skipped.sum();
+    }
+
+    LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /** Start a fresh measurement window, e.g. after warm-up. */
+    void reset() {
+        sent.reset();
+        received.reset();
+        skipped.reset();
+        latency.reset();
+    }
+}
@@ -0,0 +1,78 @@
+package com.zeal.game.network.server.simulation;
+
+import com.zeal.game.network.NetworkMessage;
+import com.zeal.game.network.SnapshotDelta;
+import com.zeal.game.network.SnapshotHistory;
+import com.zeal.game.network.WorldDeltaMessage;
+import com.zeal.game.network.WorldSnapshotMessage;
+import com.zeal.game.network.codec.GameMessageEncoder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+
+import java.util.Random;
+
+/**
+ * Measures encoded bytes per tick for one client: full WORLD_SNAPSHOT frames versus
+ * WORLD_DELTA frames against an acknowledged baseline. A fixed fraction of entities moves
+ * each tick and acks arrive a few ticks late, like on a real connection.
+ * <p>
+ * Usage: {@code SnapshotBandwidthBenchmark [movingFraction] [ackDelayTicks]}
+ */
+public class SnapshotBandwidthBenchmark {
+    private static final int[] ENTITY_COUNTS = {100, 1_000, 10_000};
+    private static final int TICKS = 300;
+
+    public static void main(String[] args) {
+        double movingFraction = args.length > 0 ? Double.parseDouble(args[0]) : 0.1;
+        int ackDelay = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        System.out.printf("moving=%.0f%% ackDelay=%d ticks, %d ticks per run%n", movingFraction * 100, ackDelay, TICKS);
+        System.out.printf("%8s %14s %14s %8s%n", "entities", "full B/tick", "delta B/tick", "ratio");
+        for (int entities : ENTITY_COUNTS) {
+            run(entities, movingFraction, ackDelay);
+        }
+    }
+
+    private static void run(int entityCount, double movingFraction, int ackDelay) {
+        Random random = new Random(42);
+        int[] ids = new int[entityCount];
+        float[] xs = new float[entityCount];
+        float[] ys = new float[entityCount];
+        for (int i = 0; i < entityCount; i++) {
+            ids[i] = i + 1;
+            xs[i] = random.nextFloat() * World.SIZE;
+            ys[i] = random.nextFloat() * World.SIZE;
+        }
+
+        SnapshotHistory sent = new SnapshotHistory();
+        long fullBytes = 0;
+        long deltaBytes = 0;
+        for (long tick = 1; tick <= TICKS; tick++) {
+            for (int i = 0; i < entityCount; i++) {
+                if (random.nextDouble() < movingFraction) {
+                    xs[i] += random.nextFloat() - 0.5f;
+                    ys[i] += random.nextFloat() - 0.5f;
+                }
+            }
+            WorldSnapshotMessage state = new WorldSnapshotMessage(tick, ids.clone(), xs.clone(), ys.clone());
+            WorldSnapshotMessage baseline = tick > ackDelay ? sent.get(tick - ackDelay) : null;
+            WorldDeltaMessage delta = SnapshotDelta.diff(baseline, state);
+            sent.put(state);
+
+            fullBytes += encodedSize(state);
+            deltaBytes += encodedSize(delta);
+        }
+        System.out.printf("%8d %14d %14d %7.1fx%n", entityCount, fullBytes / TICKS, deltaBytes / TICKS,
+                (double) fullBytes / Math.max(1, deltaBytes));
+    }
+
+    private static int encodedSize(NetworkMessage message) {
+        ByteBuf buf = GameMessageEncoder.encode(UnpooledByteBufAllocator.DEFAULT, message, 0);
+        try {
+            // + 4 for the length prefix added by the pipeline
+            return buf.readableBytes() + 4;
+        } finally {
+            buf.release();
+        }
+    }
+}
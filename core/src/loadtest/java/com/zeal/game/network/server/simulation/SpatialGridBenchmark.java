@@ -0,0 +1,94 @@
+package com.zeal.game.network.server.simulation;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Random;
+
+/**
+ * Measures radius-query cost of {@link SpatialGrid} against a brute-force scan, plus the
+ * cost of the per-tick incremental moves, at 1k and 10k entities. Entity density is kept
+ * constant by growing the world with the entity count.
+ * <p>
+ * Usage: {@code SpatialGridBenchmark [radius] [entitiesPerMillionUnits2]}
+ */
+public class SpatialGridBenchmark {
+    private static final int[] ENTITY_COUNTS = {1_000, 10_000};
+    private static final int QUERIES = 20_000;
+    private static final int WARMUP_ROUNDS = 3;
+
+    public static void main(String[] args) {
+        float radius = args.length > 0 ? Float.parseFloat(args[0]) : 300f;
+        double density = args.length > 1 ? Double.parseDouble(args[1]) : 1000;
+
+        System.out.printf("radius=%.0f density=%.0f per 1000x1000%n", radius, density);
+        System.out.printf("%8s %10s %14s %14s %12s%n", "entities", "hits/query", "grid ns/query", "scan ns/query", "move ns/op");
+        for (int count : ENTITY_COUNTS) {
+            run(count, radius, density);
+        }
+    }
+
+    private static void run(int count, float radius, double density) {
+        float size = (float) (1000.0 * Math.sqrt(count / density));
+        Random random = new Random(7);
+        float[] xs = new float[count];
+        float[] ys = new float[count];
+        SpatialGrid grid = new SpatialGrid(radius);
+        for (int id = 0; id < count; id++) {
+            xs[id] = random.nextFloat() * size;
+            ys[id] = random.nextFloat() * size;
+            grid.insert(id, xs[id], ys[id]);
+        }
+
+        IntArray out = new IntArray();
+        long gridNanos = 0;
+        long scanNanos = 0;
+        long moveNanos = 0;
+        long hits = 0;
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            boolean measure = round == WARMUP_ROUNDS;
+
+            long start = System.nanoTime();
+            long found = 0;
+            for (int q = 0; q < QUERIES; q++) {
+                int id = q % count;
+                out.clear();
+                found += grid.query(xs[id], ys[id], radius, out);
+            }
+            long gridTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long scanned = 0;
+            float radiusSq = radius * radius;
+            for (int q = 0; q < QUERIES; q++) {
+                int id = q % count;
+                for (int other = 0; other < count; other++) {
+                    float dx = xs[other] - xs[id];
+                    float dy = ys[other] - ys[id];
+                    if (dx * dx + dy * dy <= radiusSq) scanned++;
+                }
+            }
+            long scanTime = System.nanoTime() - start;
+
+            // one simulated tick of small movements for every entity
+            start = System.nanoTime();
+            for (int id = 0; id < count; id++) {
+                xs[id] += random.nextFloat() * 10f - 5f;
+                ys[id] += random.nextFloat() * 10f - 5f;
+                grid.move(id, xs[id], ys[id]);
+            }
+            long moveTime = System.nanoTime() - start;
+
+            if (measure) {
+                gridNanos = gridTime;
+                scanNanos = scanTime;
+                moveNanos = moveTime;
+                hits = found;
+                if (found != scanned) {
+                    System.out.println("WARNING: grid and scan disagree (" + found + " vs " + scanned + ")");
+                }
+            }
+        }
+        System.out.printf("%8d %10.1f %14.0f %14.0f %12.1f%n", count, (double) hits / QUERIES,
+                (double) gridNanos / QUERIES, (double) scanNanos / QUERIES, (double) moveNanos / count);
+    }
+}
@@ -12,6 +12,13 @@ import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
 
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import com.zeal.game.assets.AssetHandle;
+import com.zeal.game.assets.Assets;
+import com.zeal.game.debug.DebugFlags;
+import com.zeal.game.debug.FrameProfiler;
+import com.zeal.game.debug.ProfilerOverlay;
+import com.zeal.game.network.client.ChatInbox;
+import com.zeal.game.network.client.ClientNetworkService;
 import com.zeal.game.network.client.GameClient;
 import com.zeal.game.ui.ChatUI;
 import com.zeal.game.ui.PauseUI;
@@ -19,37 +26,44 @@ import com.zeal.game.settings.Settings;
 
 /** First screen of the application. Displayed after the application is created. */
 public class GameMainScreen implements Screen {
+    private static final int MAX_CHAT_LINES_PER_FRAME = 64;
     private final Game game;
     private final Stage stage;
     private final ChatUI chatUI;
     private final GameClient gameClient;
+    // chat from the network thread, drained once per frame
+    private final ChatInbox chatInbox = new ChatInbox();
+    private final GameClient.ChatMessageListener chatSink;
     private final Settings settings;
+    private final AssetHandle<Skin> skinHandle;
+    // F3 shows frame timings, F4 saves them as CSV
+    private final FrameProfiler profiler = new FrameProfiler();
+    private final ProfilerOverlay profilerOverlay = new ProfilerOverlay(profiler);
     private InputMultiplexer inputMultiplexer;
+    // last movement intent sent to the server; inputs are only sent when they change
+    private float lastMoveX;
+    private float lastMoveY;
     // PauseUI is a static helper now; we call PauseUI.show(...) when needed.
 
-    public GameMainScreen(Game game, String host) {
+    /** @param gameClient an already connected client, normally from {@link ClientNetworkService} */
+    public GameMainScreen(Game game, GameClient gameClient) {
         this.game = game;
         // Create stage with a viewport
         stage = new Stage(new ScreenViewport());
 
-        // Load the UI skin
-        Skin skin = new Skin(Gdx.files.internal("ui/uiskin.json"));
+        // Shared UI skin, already loaded if we came from the menu
+        skinHandle = Assets.acquireSkin();
+        Skin skin = skinHandle.get();
 
-        // Load username from typed settings
         this.settings = new Settings();
-        String username = settings.getUsername() + "-" + System.currentTimeMillis();
-
-        // Initialize the game client with chosen host
-        gameClient = new GameClient(host, com.zeal.game.network.NetworkConstants.DEFAULT_PORT, username);
-        gameClient.connect().thenRun(() -> {
-            Gdx.app.log("FirstScreen", "Connected to server");
-        }).exceptionally(throwable -> {
-            Gdx.app.error("FirstScreen", "Failed to connect: " + throwable.getMessage());
-            return null;
-        });
+
+        // The connection was opened by LoadingScreen and outlives this screen
+        this.gameClient = gameClient;
 
         // Create and add chat UI
         chatUI = new ChatUI(stage, skin, gameClient);
+        chatSink = chatUI::addMessage;
+        gameClient.setMessageListener(chatInbox);
 
         // Pause UI is shown via the static helper when needed. We'll call PauseUI.show(stage, settings, onMainMenu).
 
@@ -60,15 +74,17 @@ public class GameMainScreen implements Screen {
         // Use an InputMultiplexer so we can listen for global keys (like '/') while still
         // allowing the stage to receive input events for UI widgets.
         inputMultiplexer = new com.badlogic.gdx.InputMultiplexer();
-        // Add a permanent key logger to the InputMultiplexer so we can see keyDown events
-        inputMultiplexer.addProcessor(new com.badlogic.gdx.InputAdapter() {
-            @Override public boolean keyDown(int keycode) { Gdx.app.log("KeyLogger", "keyDown: " + keycode); return false; }
-        });
+        // Key logger so we can see keyDown events; only in verbose builds
+        if (DebugFlags.VERBOSE_INPUT) {
+            inputMultiplexer.addProcessor(new com.badlogic.gdx.InputAdapter() {
+                @Override public boolean keyDown(int keycode) { Gdx.app.log("KeyLogger", "keyDown: " + keycode); return false; }
+            });
+        }
         // Add our global input adapter first so it gets events before the stage consumes them.
         inputMultiplexer.addProcessor(new InputAdapter() {
             @Override
             public boolean keyDown(int keycode) {
-                Gdx.app.log("FirstScreen", "keyDown: " + keycode);
+                if (DebugFlags.VERBOSE_INPUT) Gdx.app.log("FirstScreen", "keyDown: " + keycode);
                 // Toggle chat on SLASH key
                 if (keycode == com.badlogic.gdx.Input.Keys.SLASH) {
                     chatUI.toggleVisibility();
@@ -109,22 +125,41 @@ public class GameMainScreen implements Screen {
 
     private void showPauseMenu() {
         // Show the static PauseUI dialog helper
-        PauseUI.show(stage, settings, () -> game.setScreen(new MainMenuScreen(game)));
+        PauseUI.show(stage, settings, this::leaveGame);
+    }
+
+    /** Back to the main menu; leaving the game is the one place the connection is closed. */
+    private void leaveGame() {
+        ClientNetworkService.get().disconnect();
+        game.setScreen(new MainMenuScreen(game));
     }
 
     @Override
     public void render(float delta) {
-        
-        // Clear the screen
+        profiler.beginFrame();
+        update(delta);
+
         Gdx.gl.glClearColor(0.2f, 0.2f, 0.2f, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        stage.draw();
+        profiler.mark(FrameProfiler.Section.DRAW);
+        profiler.endFrame();
+
+        // drawn outside the measured frame so it does not show up in its own numbers
+        profilerOverlay.draw(delta);
+    }
+
+    /** Everything a frame does before drawing: input, chat delivery and the stage's act. */
+    private void update(float delta) {
         // Poll ESC here (polling is independent of input processors) so pause works even
         // if another processor temporarily replaced the multiplexer.
         // Ensure our InputMultiplexer stays installed so global keys are captured.
         if (Gdx.input.getInputProcessor() != inputMultiplexer) {
-            Gdx.app.log("FirstScreen", "Input processor was replaced (" +
-                    (Gdx.input.getInputProcessor() == null ? "null" : Gdx.input.getInputProcessor().getClass().getSimpleName()) +
-                    "), re-installing our InputMultiplexer");
+            if (DebugFlags.VERBOSE_INPUT) {
+                Gdx.app.log("FirstScreen", "Input processor was replaced (" +
+                        (Gdx.input.getInputProcessor() == null ? "null" : Gdx.input.getInputProcessor().getClass().getSimpleName()) +
+                        "), re-installing our InputMultiplexer");
+            }
             Gdx.input.setInputProcessor(inputMultiplexer);
         }
         // (debug indicator removed)
@@ -132,7 +167,14 @@ public class GameMainScreen implements Screen {
         // NOTE: ESC handling moved to the InputMultiplexer keyDown handler to avoid
         // double-handling (keyDown + polling) which caused immediate open/close.
 
-        // Debug shortcuts: F11 = dump stage actors; F10 = force-show pause UI
+        // Debug shortcuts: F3 = profiler overlay; F4 = export frame times; F11 = dump stage actors;
+        // F10 = force-show pause UI
+        if (Gdx.input.isKeyJustPressed(Keys.F3)) {
+            profilerOverlay.toggle();
+        }
+        if (Gdx.input.isKeyJustPressed(Keys.F4)) {
+            profilerOverlay.export();
+        }
         if (Gdx.input.isKeyJustPressed(Keys.F11)) {
             Gdx.app.log("FirstScreen", "--- Stage Actors ---");
             for (int i = 0; i < stage.getActors().size; i++) {
@@ -145,25 +187,48 @@ public class GameMainScreen implements Screen {
 
         if (Gdx.input.isKeyJustPressed(Keys.F10)) {
             Gdx.app.log("FirstScreen", "F10 pressed: forcing pause UI show/bring to front");
-            PauseUI.show(stage, settings, () -> game.setScreen(new MainMenuScreen(game)));
+            PauseUI.show(stage, settings, this::leaveGame);
             // ensure modal overlay and window are in front
             stage.setKeyboardFocus(null);
         }
         
+        sendMovementInput();
+        profiler.mark(FrameProfiler.Section.INPUT);
+
+        // Deliver chat that arrived since the last frame; a flood spreads over several frames
+        chatInbox.drain(MAX_CHAT_LINES_PER_FRAME, chatSink);
+        profiler.mark(FrameProfiler.Section.NETWORK);
+
         // Update chat UI and stage
         chatUI.act(delta);
         stage.act(delta);
-        stage.draw();
-
-        // (debug indicator removed)
+        profiler.mark(FrameProfiler.Section.ACT);
     }
     
+    private void sendMovementInput() {
+        float moveX = 0f;
+        float moveY = 0f;
+        // no movement while typing or paused
+        if (!chatUI.isVisible() && !PauseUI.isShowing()) {
+            if (Gdx.input.isKeyPressed(Keys.A) || Gdx.input.isKeyPressed(Keys.LEFT)) moveX -= 1f;
+            if (Gdx.input.isKeyPressed(Keys.D) || Gdx.input.isKeyPressed(Keys.RIGHT)) moveX += 1f;
+            if (Gdx.input.isKeyPressed(Keys.S) || Gdx.input.isKeyPressed(Keys.DOWN)) moveY -= 1f;
+            if (Gdx.input.isKeyPressed(Keys.W) || Gdx.input.isKeyPressed(Keys.UP)) moveY += 1f;
+        }
+        if (moveX != lastMoveX || moveY != lastMoveY) {
+            lastMoveX = moveX;
+            lastMoveY = moveY;
+            gameClient.sendInput(moveX, moveY);
+        }
+    }
+
     @Override
     public void resize(int width, int height) {
         // If the window is minimized on a desktop (LWJGL3) platform, width and height are 0, which causes problems.
         // In that case, we don't resize anything, and wait for the window to be a normal size before updating.
         if(width <= 0 || height <= 0) return;
         stage.getViewport().update(width, height, true);
+        profilerOverlay.resize(width, height);
     }
 
     @Override
@@ -179,12 +244,15 @@ public class GameMainScreen implements Screen {
     @Override
     public void hide() {
         // This method is called when another screen replaces this one.
-        gameClient.disconnect();
+        // The connection is kept; leaveGame() closes it when the player really leaves.
+        // GL counting swaps out Gdx.gl, so it must not outlive this screen.
+        profilerOverlay.setVisible(false);
     }
 
     @Override
     public void dispose() {
         stage.dispose();
-        gameClient.disconnect();
+        profilerOverlay.dispose();
+        skinHandle.dispose();
     }
 }
\ No newline at end of file
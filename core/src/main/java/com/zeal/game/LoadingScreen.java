@@ -10,7 +10,11 @@ import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 
-import java.util.concurrent.CompletableFuture;
+import com.zeal.game.assets.AssetHandle;
+import com.zeal.game.assets.Assets;
+import com.zeal.game.network.NetworkConstants;
+import com.zeal.game.network.client.ClientNetworkService;
+import com.zeal.game.settings.Settings;
 
 /**
  * LoadingScreen attempts to connect to the server and shows progress.
@@ -18,6 +22,7 @@ import java.util.concurrent.CompletableFuture;
 public class LoadingScreen implements Screen {
     private final Game game;
     private final Stage stage;
+    private final AssetHandle<Skin> skinHandle;
     private final Skin skin;
     private final String host;
     // no longer storing settings here; FirstScreen will load settings
@@ -27,7 +32,8 @@ public class LoadingScreen implements Screen {
         this.host = host;
 
         stage = new Stage(new ScreenViewport());
-        skin = new Skin(Gdx.files.internal("ui/uiskin.json"));
+        skinHandle = Assets.acquireSkin();
+        skin = skinHandle.get();
 
         Table root = new Table();
         root.setFillParent(true);
@@ -40,14 +46,11 @@ public class LoadingScreen implements Screen {
     }
 
     private void connect() {
-        // Do a small socket check in background to verify server is reachable before opening the game screen.
-        CompletableFuture.runAsync(() -> {
-            try (java.net.Socket s = new java.net.Socket()) {
-                s.connect(new java.net.InetSocketAddress(host, com.zeal.game.network.NetworkConstants.DEFAULT_PORT), 3000);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        }).thenRun(() -> Gdx.app.postRunnable(() -> game.setScreen(new GameMainScreen(game, host))))
+        // The real connection doubles as the reachability check; the game screen gets it already open.
+        // the server tells players apart by the id it assigns; the name is only for display
+        String username = new Settings().getUsername();
+        ClientNetworkService.get().connect(host, NetworkConstants.DEFAULT_PORT, username)
+          .thenAccept(client -> Gdx.app.postRunnable(() -> game.setScreen(new GameMainScreen(game, client))))
           .exceptionally(throwable -> {
               Gdx.app.postRunnable(() -> showError(throwable.getCause() == null ? throwable.getMessage() : throwable.getCause().getMessage()));
               return null;
@@ -108,6 +111,6 @@ public class LoadingScreen implements Screen {
     @Override
     public void dispose() {
         stage.dispose();
-        skin.dispose();
+        skinHandle.dispose();
     }
 }
@@ -9,6 +9,8 @@ import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import com.zeal.game.assets.AssetHandle;
+import com.zeal.game.assets.Assets;
 import com.zeal.game.network.NetworkConstants;
 
 /**
@@ -17,12 +19,14 @@ import com.zeal.game.network.NetworkConstants;
 public class MainMenuScreen implements Screen {
     private final Game game;
     private final Stage stage;
+    private final AssetHandle<Skin> skinHandle;
     private final Skin skin;
 
     public MainMenuScreen(Game game) {
         this.game = game;
         stage = new Stage(new ScreenViewport());
-        skin = new Skin(Gdx.files.internal("ui/uiskin.json"));
+        skinHandle = Assets.acquireSkin();
+        skin = skinHandle.get();
 
         Table root = new Table();
         root.setFillParent(true);
@@ -189,6 +193,6 @@ public class MainMenuScreen implements Screen {
     @Override
     public void dispose() {
         stage.dispose();
-        skin.dispose();
+        skinHandle.dispose();
     }
 }
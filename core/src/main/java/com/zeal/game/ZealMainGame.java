@@ -1,6 +1,10 @@
 package com.zeal.game;
 
 import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.zeal.game.assets.Assets;
+import com.zeal.game.network.client.ClientNetworkService;
 
 /** {@link com.badlogic.gdx.ApplicationListener} implementation shared by all platforms. */
 public class ZealMainGame extends Game {
@@ -8,4 +12,26 @@ public class ZealMainGame extends Game {
     public void create() {
         setScreen(new MainMenuScreen(this));
     }
-}
\ No newline at end of file
+
+    /**
+     * Screens are built fresh for every transition, so the one being replaced is disposed. That
+     * happens a frame later: the switch is usually made from inside the old screen's stage.
+     * The new screen has taken its asset handles by then, so shared assets stay loaded.
+     */
+    @Override
+    public void setScreen(Screen screen) {
+        Screen previous = getScreen();
+        super.setScreen(screen);
+        if (previous != null && previous != screen) {
+            Gdx.app.postRunnable(previous::dispose);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        if (getScreen() != null) getScreen().dispose();
+        ClientNetworkService.get().shutdown();
+        Assets.dispose();
+    }
+}
@@ -0,0 +1,32 @@
+package com.zeal.game.assets;
+
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * One reference to an asset held by the {@link Assets} manager. The manager counts references
+ * per path and only unloads the asset (and frees its textures) when the last handle is disposed,
+ * so screens that share an asset neither reload it nor free it from under each other.
+ * Disposing a handle twice is harmless. GL thread only, like the manager itself.
+ */
+public final class AssetHandle<T> implements Disposable {
+    private final String path;
+    private T asset;
+
+    AssetHandle(String path, T asset) {
+        this.path = path;
+        this.asset = asset;
+    }
+
+    /** The asset; must not be used after this handle is disposed. */
+    public T get() {
+        if (asset == null) throw new IllegalStateException("Handle to " + path + " already released");
+        return asset;
+    }
+
+    @Override
+    public void dispose() {
+        if (asset == null) return;
+        asset = null;
+        Assets.release(path);
+    }
+}
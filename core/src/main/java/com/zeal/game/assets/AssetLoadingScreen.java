@@ -15,14 +15,21 @@ import com.zeal.game.MainMenuScreen;
 public class AssetLoadingScreen implements Screen {
     private final Game game;
     private final Stage stage;
+    private final AssetHandle<Skin> skinHandle;
     private final Skin skin;
     private final ProgressBar progressBar;
     private final Label progressLabel;
+    private static final String PROGRESS_PREFIX = "Loading: ";
+    // label text is only rebuilt when the whole percentage changes
+    private final StringBuilder progressText = new StringBuilder(PROGRESS_PREFIX);
+    private int shownPercent;
+    private boolean leaving;
 
     public AssetLoadingScreen(Game game) {
         this.game = game;
         stage = new Stage(new ScreenViewport());
-        skin = new Skin(Gdx.files.internal("ui/uiskin.json"));
+        skinHandle = Assets.acquireSkin();
+        skin = skinHandle.get();
 
         Table root = new Table();
         root.setFillParent(true);
@@ -32,7 +39,7 @@ public class AssetLoadingScreen implements Screen {
         progressBar.setValue(0f);
         progressBar.setAnimateDuration(0.1f);
 
-        progressLabel = new Label("Loading: 0%", skin);
+        progressLabel = new Label(PROGRESS_PREFIX + "0%", skin);
 
         root.add(progressLabel).pad(8).row();
         root.add(progressBar).width(300).height(24).pad(8).row();
@@ -55,12 +62,20 @@ public class AssetLoadingScreen implements Screen {
         boolean finished = Assets.update();
         float progress = Assets.getProgress();
         progressBar.setValue(progress);
-        progressLabel.setText(String.format("Loading: %d%%", Math.round(progress * 100f)));
+        int percent = Math.round(progress * 100f);
+        if (percent != shownPercent) {
+            shownPercent = percent;
+            progressText.setLength(PROGRESS_PREFIX.length());
+            progressText.append(percent).append('%');
+            progressLabel.setText(progressText);
+        }
 
         stage.act(delta);
         stage.draw();
 
-        if (finished) {
+        if (finished && !leaving) {
+            // stays true on the frames until the new screen is set; switch only once
+            leaving = true;
             // Ensure models are loaded synchronously (OBJ/G3D) and then continue
             Assets.finishAndLoadModelsSync();
             // Move to main menu
@@ -85,6 +100,6 @@ public class AssetLoadingScreen implements Screen {
     @Override
     public void dispose() {
         stage.dispose();
-        skin.dispose();
+        skinHandle.dispose();
     }
 }
@@ -26,6 +26,8 @@ import java.util.Map;
  */
 public final class Assets {
 	public static final AssetManager manager = new AssetManager();
+	/** The skin every screen and dialog shares; see {@link #acquireSkin()}. */
+	public static final String UI_SKIN = "ui/uiskin.json";
 
 	// Models loaded synchronously (ObjLoader / G3dModelLoader). We keep a simple cache
 	// and dispose models explicitly in dispose(). AssetManager does not manage these.
@@ -180,6 +182,29 @@ public final class Assets {
 		return out;
 	}
 
+	/**
+	 * Takes a reference to the shared UI skin, loading it (atlas, fonts, textures) only if no one
+	 * holds it yet. Dispose the handle instead of the skin when done with it.
+	 */
+	public static AssetHandle<Skin> acquireSkin() {
+		return acquire(UI_SKIN, Skin.class);
+	}
+
+	/**
+	 * Takes a reference to an asset, loading it synchronously if it is not loaded yet. The
+	 * manager counts the references and unloads the asset when the last handle is disposed.
+	 */
+	public static <T> AssetHandle<T> acquire(String path, Class<T> type) {
+		// load() of an already loaded asset only bumps its reference count
+		manager.load(path, type);
+		T asset = manager.finishLoadingAsset(path);
+		return new AssetHandle<>(path, asset);
+	}
+
+	static void release(String path) {
+		if (manager.isLoaded(path)) manager.unload(path);
+	}
+
 	/**
 	 * Retrieve a previously loaded Model by its path from assets.txt.
 	 * Returns null if not loaded or unsupported.
@@ -0,0 +1,15 @@
+package com.zeal.game.debug;
+
+/**
+ * Compile-time debug switches. They are constants, so javac drops every block guarded by one
+ * that is false: a normal build has no string building or logging for them on the frame path.
+ */
+public final class DebugFlags {
+    private DebugFlags() {}
+
+    /** Logs every key press and input-processor change on the game screen. */
+    public static final boolean VERBOSE_INPUT = false;
+
+    /** Logs every chat line as it is added to the chat window. */
+    public static final boolean VERBOSE_CHAT = false;
+}
@@ -0,0 +1,173 @@
+package com.zeal.game.debug;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Records the last {@link #HISTORY_FRAMES} frames of a screen: CPU time per subsystem, the time
+ * between frames, and (while GL counting is on) draw calls, texture bindings and shader switches
+ * from libGDX's {@link GLProfiler}. Recording is a few {@code nanoTime()} calls into fixed arrays,
+ * so it is always on; the {@link ProfilerOverlay} shows it and {@link #exportCsv} saves it.
+ * <p>
+ * A frame is bracketed by {@link #beginFrame()} and {@link #endFrame()}; {@link #mark} closes a
+ * section and charges it the time since the previous mark. Render thread only.
+ */
+public class FrameProfiler {
+    public enum Section { INPUT, NETWORK, ACT, DRAW }
+
+    public static final int HISTORY_FRAMES = 300;
+    private static final Section[] SECTIONS = Section.values();
+
+    private final long[][] sectionNanos = new long[SECTIONS.length][HISTORY_FRAMES];
+    private final long[] cpuNanos = new long[HISTORY_FRAMES];
+    private final long[] intervalNanos = new long[HISTORY_FRAMES];
+    private final int[] drawCalls = new int[HISTORY_FRAMES];
+    private final int[] textureBindings = new int[HISTORY_FRAMES];
+    private final int[] shaderSwitches = new int[HISTORY_FRAMES];
+    private final long[] scratch = new long[HISTORY_FRAMES];
+    private final GLProfiler glProfiler;
+
+    // frames recorded so far; the current one goes to slot frames % HISTORY_FRAMES
+    private long frames;
+    private long frameStart;
+    private long lastMark;
+
+    public FrameProfiler() {
+        glProfiler = new GLProfiler(Gdx.graphics);
+    }
+
+    /** GL counting wraps every GL call, so it is only switched on while someone looks at it. */
+    public void setGlCounting(boolean enabled) {
+        if (enabled == glProfiler.isEnabled()) return;
+        if (enabled) {
+            glProfiler.enable();
+        } else {
+            glProfiler.disable();
+        }
+    }
+
+    public void beginFrame() {
+        long now = System.nanoTime();
+        int slot = slot(frames);
+        intervalNanos[slot] = frameStart == 0 ? 0 : now - frameStart;
+        for (int i = 0; i < SECTIONS.length; i++) {
+            sectionNanos[i][slot] = 0;
+        }
+        frameStart = now;
+        lastMark = now;
+        // drops whatever was drawn after the last frame ended (the overlay itself)
+        glProfiler.reset();
+    }
+
+    public void mark(Section section) {
+        long now = System.nanoTime();
+        sectionNanos[section.ordinal()][slot(frames)] += now - lastMark;
+        lastMark = now;
+    }
+
+    public void endFrame() {
+        int slot = slot(frames);
+        cpuNanos[slot] = System.nanoTime() - frameStart;
+        boolean counting = glProfiler.isEnabled();
+        drawCalls[slot] = counting ? glProfiler.getDrawCalls() : -1;
+        textureBindings[slot] = counting ? glProfiler.getTextureBindings() : -1;
+        shaderSwitches[slot] = counting ? glProfiler.getShaderSwitches() : -1;
+        frames++;
+    }
+
+    /** Number of frames held, at most {@link #HISTORY_FRAMES}. */
+    public int size() {
+        return (int) Math.min(frames, HISTORY_FRAMES);
+    }
+
+    /** CPU time of the i-th held frame, 0 being the oldest. */
+    public long cpuNanos(int i) {
+        return cpuNanos[index(i)];
+    }
+
+    public long intervalNanos(int i) {
+        return intervalNanos[index(i)];
+    }
+
+    public long sectionNanos(Section section, int i) {
+        return sectionNanos[section.ordinal()][index(i)];
+    }
+
+    /** GL counters of the most recent frame; -1 while GL counting is off. */
+    public int lastDrawCalls() {
+        return frames == 0 ? -1 : drawCalls[slot(frames - 1)];
+    }
+
+    public int lastTextureBindings() {
+        return frames == 0 ? -1 : textureBindings[slot(frames - 1)];
+    }
+
+    public int lastShaderSwitches() {
+        return frames == 0 ? -1 : shaderSwitches[slot(frames - 1)];
+    }
+
+    /** The p-th percentile (0..1) of CPU time over the held frames. */
+    public long cpuPercentile(double p) {
+        return percentile(cpuNanos, p);
+    }
+
+    /** The p-th percentile (0..1) of frame-to-frame time over the held frames. */
+    public long intervalPercentile(double p) {
+        return percentile(intervalNanos, p);
+    }
+
+    private long percentile(long[] values, double p) {
+        int n = size();
+        if (n == 0) return 0;
+        // the ring's order does not matter for a percentile, only which slots are filled
+        System.arraycopy(values, 0, scratch, 0, n);
+        Arrays.sort(scratch, 0, n);
+        int rank = (int) Math.ceil(p * n) - 1;
+        return scratch[Math.max(0, Math.min(n - 1, rank))];
+    }
+
+    /** Writes the held frames, oldest first, as CSV with times in milliseconds. */
+    public void exportCsv(FileHandle file) throws IOException {
+        try (Writer out = file.writer(false, "UTF-8")) {
+            out.write("frame,interval_ms,cpu_ms");
+            for (Section section : SECTIONS) {
+                out.write(',');
+                out.write(section.name().toLowerCase(Locale.ROOT));
+                out.write("_ms");
+            }
+            out.write(",draw_calls,texture_bindings,shader_switches\n");
+            int n = size();
+            long first = frames - n;
+            for (int i = 0; i < n; i++) {
+                int slot = index(i);
+                StringBuilder line = new StringBuilder(128);
+                line.append(first + i).append(',').append(millis(intervalNanos[slot]))
+                        .append(',').append(millis(cpuNanos[slot]));
+                for (int s = 0; s < SECTIONS.length; s++) {
+                    line.append(',').append(millis(sectionNanos[s][slot]));
+                }
+                line.append(',').append(drawCalls[slot]).append(',').append(textureBindings[slot])
+                        .append(',').append(shaderSwitches[slot]).append('\n');
+                out.write(line.toString());
+            }
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+
+    private int index(int i) {
+        return slot(frames - size() + i);
+    }
+
+    private static int slot(long frame) {
+        return (int) (frame % HISTORY_FRAMES);
+    }
+}
@@ -0,0 +1,157 @@
+package com.zeal.game.debug;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.io.IOException;
+
+/**
+ * Draws a {@link FrameProfiler}'s history in the top-left corner: one bar per frame (CPU time,
+ * split by subsystem, with the frame-to-frame time as a grey backdrop), guide lines at 60 and
+ * 30 fps, and a text block with percentiles and the last frame's GL counters. The text is
+ * rebuilt a few times a second rather than every frame.
+ */
+public class ProfilerOverlay implements Disposable {
+    private static final float GRAPH_HEIGHT = 100f;
+    private static final float BAR_WIDTH = 1f;
+    private static final float MARGIN = 10f;
+    // the graph's top is 33.3 ms, two frames at 60 Hz
+    private static final float FULL_SCALE_NANOS = 33_333_333f;
+    private static final float TEXT_REFRESH_SECONDS = 0.5f;
+    private static final FrameProfiler.Section[] SECTIONS = FrameProfiler.Section.values();
+    private static final String[] SECTION_LABELS = {"input", "network", "act", "draw"};
+    private static final Color[] SECTION_COLORS = {
+            Color.SKY, Color.ORANGE, Color.LIME, Color.SCARLET
+    };
+
+    private final FrameProfiler profiler;
+    private final ShapeRenderer shapes = new ShapeRenderer();
+    private final SpriteBatch batch = new SpriteBatch();
+    private final BitmapFont font = new BitmapFont();
+    private final StringBuilder text = new StringBuilder(256);
+    private float sinceRefresh = TEXT_REFRESH_SECONDS;
+    private boolean visible;
+
+    public ProfilerOverlay(FrameProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void toggle() {
+        setVisible(!visible);
+    }
+
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+        profiler.setGlCounting(visible);
+        sinceRefresh = TEXT_REFRESH_SECONDS;
+    }
+
+    public void resize(int width, int height) {
+        shapes.getProjectionMatrix().setToOrtho2D(0, 0, width, height);
+        batch.getProjectionMatrix().setToOrtho2D(0, 0, width, height);
+    }
+
+    /** Saves the profiler's history next to the game and logs where it went. */
+    public void export() {
+        FileHandle file = Gdx.files.local("profiler-" + System.currentTimeMillis() + ".csv");
+        try {
+            profiler.exportCsv(file);
+            Gdx.app.log("Profiler", "Frame times written to " + file.file().getAbsolutePath());
+        } catch (IOException e) {
+            Gdx.app.error("Profiler", "Could not write " + file.path(), e);
+        }
+    }
+
+    public void draw(float delta) {
+        if (!visible) return;
+        float top = Gdx.graphics.getHeight() - MARGIN;
+        float bottom = top - GRAPH_HEIGHT;
+        int frames = profiler.size();
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        shapes.begin(ShapeRenderer.ShapeType.Filled);
+        shapes.setColor(0f, 0f, 0f, 0.6f);
+        shapes.rect(MARGIN, bottom, FrameProfiler.HISTORY_FRAMES * BAR_WIDTH, GRAPH_HEIGHT);
+        for (int i = 0; i < frames; i++) {
+            float x = MARGIN + i * BAR_WIDTH;
+            shapes.setColor(Color.DARK_GRAY);
+            shapes.rect(x, bottom, BAR_WIDTH, scale(profiler.intervalNanos(i)));
+            float y = bottom;
+            for (int s = 0; s < SECTIONS.length; s++) {
+                float h = scale(profiler.sectionNanos(SECTIONS[s], i));
+                shapes.setColor(SECTION_COLORS[s]);
+                shapes.rect(x, y, BAR_WIDTH, h);
+                y += h;
+            }
+        }
+        shapes.end();
+        shapes.begin(ShapeRenderer.ShapeType.Line);
+        shapes.setColor(Color.YELLOW);
+        float width = FrameProfiler.HISTORY_FRAMES * BAR_WIDTH;
+        shapes.line(MARGIN, bottom + GRAPH_HEIGHT / 2, MARGIN + width, bottom + GRAPH_HEIGHT / 2);
+        shapes.setColor(Color.RED);
+        shapes.line(MARGIN, top, MARGIN + width, top);
+        shapes.end();
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+
+        sinceRefresh += delta;
+        if (sinceRefresh >= TEXT_REFRESH_SECONDS) {
+            sinceRefresh = 0;
+            rebuildText();
+        }
+        batch.begin();
+        font.draw(batch, text, MARGIN, bottom - 4);
+        batch.end();
+    }
+
+    private void rebuildText() {
+        text.setLength(0);
+        text.append("frame p50 ").append(millis(profiler.intervalPercentile(0.5)))
+                .append("  p95 ").append(millis(profiler.intervalPercentile(0.95)))
+                .append("  p99 ").append(millis(profiler.intervalPercentile(0.99)))
+                .append("  max ").append(millis(profiler.intervalPercentile(1.0))).append(" ms\n");
+        text.append("cpu   p50 ").append(millis(profiler.cpuPercentile(0.5)))
+                .append("  p95 ").append(millis(profiler.cpuPercentile(0.95)))
+                .append("  p99 ").append(millis(profiler.cpuPercentile(0.99)))
+                .append("  max ").append(millis(profiler.cpuPercentile(1.0))).append(" ms\n");
+        int last = profiler.size() - 1;
+        if (last >= 0) {
+            for (int s = 0; s < SECTIONS.length; s++) {
+                if (s > 0) text.append("  ");
+                text.append(SECTION_LABELS[s]).append(' ')
+                        .append(millis(profiler.sectionNanos(SECTIONS[s], last)));
+            }
+            text.append(" ms\n");
+        }
+        text.append("draw calls ").append(profiler.lastDrawCalls())
+                .append("  textures ").append(profiler.lastTextureBindings())
+                .append("  shaders ").append(profiler.lastShaderSwitches())
+                .append("\nF3 hide  F4 export CSV");
+    }
+
+    private static float scale(long nanos) {
+        return Math.min(GRAPH_HEIGHT, nanos / FULL_SCALE_NANOS * GRAPH_HEIGHT);
+    }
+
+    // tenths of a millisecond without going through String.format
+    private static float millis(long nanos) {
+        return Math.round(nanos / 100_000f) / 10f;
+    }
+
+    @Override
+    public void dispose() {
+        shapes.dispose();
+        batch.dispose();
+        font.dispose();
+    }
+}
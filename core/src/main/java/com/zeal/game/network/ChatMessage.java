@@ -1,18 +1,86 @@
 package com.zeal.game.network;
 
+import io.netty.util.Recycler;
+
 import java.io.Serializable;
 
-public class ChatMessage implements Serializable {
+/**
+ * A chat line. Instances created by the decoder come from a {@link Recycler} pool: whoever
+ * consumes such a message calls {@link #recycle()} once done and must not keep a reference.
+ * Messages built with a constructor are unpooled and {@code recycle()} is a no-op for them.
+ */
+public class ChatMessage implements NetworkMessage, Serializable {
     private static final long serialVersionUID = 1L;
-    
-    private final String sender;
-    private final String content;
-    private final long timestamp;
 
+    private static final Recycler<ChatMessage> RECYCLER = new Recycler<ChatMessage>() {
+        @Override
+        protected ChatMessage newObject(Handle<ChatMessage> handle) {
+            return new ChatMessage(handle);
+        }
+    };
+
+    private final transient Recycler.Handle<ChatMessage> handle;
+    private int senderId;
+    private String sender;
+    private String content;
+    private long timestamp;
+    // position in the room's history; 0 for lines that are not part of it (client input, proximity chat)
+    private long sequence;
+    // n-th line sent by this sender in its session; 0 for server announcements
+    private long senderSequence;
+
+    /** Message without a player id: server announcements, or client input the server stamps on relay. */
     public ChatMessage(String sender, String content) {
+        this(NetworkConstants.SERVER_PLAYER_ID, sender, content);
+    }
+
+    public ChatMessage(int senderId, String sender, String content) {
+        this(senderId, sender, content, System.currentTimeMillis());
+    }
+
+    public ChatMessage(int senderId, String sender, String content, long timestamp) {
+        this.handle = null;
+        set(senderId, sender, content, timestamp);
+    }
+
+    private ChatMessage(Recycler.Handle<ChatMessage> handle) {
+        this.handle = handle;
+    }
+
+    /** Pooled instance; release it with {@link #recycle()}. */
+    public static ChatMessage newInstance(int senderId, String sender, String content, long timestamp) {
+        ChatMessage message = RECYCLER.get();
+        message.set(senderId, sender, content, timestamp);
+        return message;
+    }
+
+    private void set(int senderId, String sender, String content, long timestamp) {
+        this.senderId = senderId;
         this.sender = sender;
         this.content = content;
-        this.timestamp = System.currentTimeMillis();
+        this.timestamp = timestamp;
+        this.sequence = 0;
+        this.senderSequence = 0;
+    }
+
+    /** Pooled copy of this message, e.g. to hand it to another thread; release it with {@link #recycle()}. */
+    public ChatMessage copy() {
+        ChatMessage copy = newInstance(senderId, sender, content, timestamp);
+        copy.sequence = sequence;
+        copy.senderSequence = senderSequence;
+        return copy;
+    }
+
+    /** Returns a pooled instance to its pool. Safe to call on unpooled messages. */
+    public void recycle() {
+        if (handle == null) return;
+        sender = null;
+        content = null;
+        handle.recycle(this);
+    }
+
+    public int getSenderId() {
+        return senderId;
     }
 
     public String getSender() {
@@ -27,8 +95,31 @@ public class ChatMessage implements Serializable {
         return timestamp;
     }
 
+    /** Sequence number within the room's chat history, or 0 when unsequenced. */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    /** Sender-assigned number, increasing by one per line for the whole session, or 0. */
+    public long getSenderSequence() {
+        return senderSequence;
+    }
+
+    public void setSenderSequence(long senderSequence) {
+        this.senderSequence = senderSequence;
+    }
+
+    @Override
+    public byte getOpcode() {
+        return NetworkConstants.CHAT_MESSAGE;
+    }
+
     @Override
     public String toString() {
         return String.format("[%s]: %s", sender, content);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,29 @@
+package com.zeal.game.network;
+
+/**
+ * Server reply to a {@link HelloMessage} or {@link ResumeMessage} it will not accept, e.g. from a
+ * client speaking another protocol version. The server closes the connection right after it.
+ */
+public class HandshakeRejectedMessage implements NetworkMessage {
+    private final int serverVersion;
+    private final String reason;
+
+    public HandshakeRejectedMessage(int serverVersion, String reason) {
+        this.serverVersion = serverVersion;
+        this.reason = reason;
+    }
+
+    /** Protocol version the server speaks, so the client can tell the player what to update. */
+    public int getServerVersion() {
+        return serverVersion;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    @Override
+    public byte getOpcode() {
+        return NetworkConstants.HANDSHAKE_REJECTED;
+    }
+}
@@ -0,0 +1,43 @@
+package com.zeal.game.network;
+
+/**
+ * First frame a client sends after connecting: the protocol version it speaks, the player's
+ * display name and the optional protocol features ({@code NetworkConstants.FEATURE_*}) it
+ * supports. The server answers with the player id that stands for this player from then on.
+ */
+public class HelloMessage implements NetworkMessage {
+    private final int protocolVersion;
+    private final String name;
+    private final int features;
+
+    public HelloMessage(String name) {
+        this(name, 0);
+    }
+
+    public HelloMessage(String name, int features) {
+        this(NetworkConstants.PROTOCOL_VERSION, name, features);
+    }
+
+    public HelloMessage(int protocolVersion, String name, int features) {
+        this.protocolVersion = protocolVersion;
+        this.name = name;
+        this.features = features;
+    }
+
+    public int getProtocolVersion() {
+        return protocolVersion;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getFeatures() {
+        return features;
+    }
+
+    @Override
+    public byte getOpcode() {
+        return NetworkConstants.HELLO;
+    }
+}
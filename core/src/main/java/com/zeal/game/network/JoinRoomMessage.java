@@ -0,0 +1,19 @@
+package com.zeal.game.network;
+
+/** Client asks to move into another room; the server creates it if nobody is in it yet. */
+public class JoinRoomMessage implements NetworkMessage {
+    private final String room;
+
+    public JoinRoomMessage(String room) {
+        this.room = room;
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    @Override
+    public byte getOpcode() {
+        return NetworkConstants.JOIN_ROOM;
+    }
+}
@@ -3,11 +3,54 @@ package com.zeal.game.network;
 public class NetworkConstants {
     public static final int DEFAULT_PORT = 8080;
     public static final String DEFAULT_HOST = "localhost";
+
+    // Wire protocol version, sent first in HELLO/RESUME; bump on any incompatible frame change
+    public static final int PROTOCOL_VERSION = 1;
+    // Longer player names are cut by the server
+    public static final int MAX_NAME_LENGTH = 32;
+    // Chat lines starting with this only reach players near the sender, best effort
+    public static final String LOCAL_CHAT_PREFIX = "/l ";
     
-    // Network protocol constants
+    // Network protocol constants: first byte of every frame
     public static final byte CHAT_MESSAGE = 0x01;
+    public static final byte HELLO = 0x02;
+    public static final byte WELCOME = 0x03;
+    public static final byte PLAYER_JOINED = 0x04;
+    public static final byte PLAYER_LEFT = 0x05;
+    public static final byte PLAYER_INPUT = 0x06;
+    public static final byte WORLD_SNAPSHOT = 0x07;
+    public static final byte WORLD_DELTA = 0x08;
+    public static final byte SNAPSHOT_ACK = 0x09;
+    public static final byte JOIN_ROOM = 0x0A;
+    public static final byte RESUME = 0x0B;
+    public static final byte ROOM_JOINED = 0x0C;
+    public static final byte HANDSHAKE_REJECTED = 0x0D;
+
+    // Set on the opcode of a frame whose payload is deflate-compressed
+    public static final int COMPRESSED_FLAG = 0x80;
+    // Frames larger than this are compressed once both ends agreed to
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 512;
+
+    // Optional protocol features, offered in HELLO/RESUME and accepted in WELCOME
+    public static final int FEATURE_COMPRESSION = 0x01;
+
+    // Datagram kinds: first byte of every UDP packet, followed by the session token
+    public static final byte UDP_BIND = 0x40;
+    public static final byte UDP_BOUND = 0x41;
+    public static final byte UDP_STATE = 0x42;
+    public static final int UDP_HEADER_BYTES = 1 + 8;
+    // either side sends state over TCP again once it heard nothing over UDP for this long
+    public static final long UDP_PEER_TIMEOUT_MILLIS = 3000;
+    // Safe datagram payload size on the open internet (no fragmentation on typical paths)
+    public static final int DEFAULT_UDP_MTU = 1200;
+    // Previously sent state frames repeated in every datagram
+    public static final int DEFAULT_UDP_REDUNDANCY = 2;
+
+    // Player id used for messages originating from the server itself
+    public static final int SERVER_PLAYER_ID = 0;
+    public static final String SERVER_NAME = "Server";
     
     private NetworkConstants() {
         // Prevent instantiation
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,9 @@
+package com.zeal.game.network;
+
+/**
+ * Anything that travels over a game connection. The opcode is the first byte of every frame
+ * and selects the wire layout (see {@link NetworkConstants}).
+ */
+public interface NetworkMessage {
+    byte getOpcode();
+}
@@ -0,0 +1,42 @@
+package com.zeal.game.network;
+
+/**
+ * Movement intent sampled by the client. Axis values are in [-1, 1] and travel as one signed
+ * byte each. The player id is not on the wire; the server fills it in from the connection.
+ */
+public class PlayerInputMessage implements NetworkMessage {
+    private final int playerId;
+    private final float moveX;
+    private final float moveY;
+
+    public PlayerInputMessage(float moveX, float moveY) {
+        this(NetworkConstants.SERVER_PLAYER_ID, moveX, moveY);
+    }
+
+    public PlayerInputMessage(int playerId, float moveX, float moveY) {
+        this.playerId = playerId;
+        this.moveX = clamp(moveX);
+        this.moveY = clamp(moveY);
+    }
+
+    private static float clamp(float axis) {
+        return Math.max(-1f, Math.min(1f, axis));
+    }
+
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    public float getMoveX() {
+        return moveX;
+    }
+
+    public float getMoveY() {
+        return moveY;
+    }
+
+    @Override
+    public byte getOpcode() {
+        return NetworkConstants.PLAYER_INPUT;
+    }
+}
@@ -0,0 +1,25 @@
+package com.zeal.game.network;
+
+/** Announces the id -> name mapping of a member of the client's room so later frames can refer to the id only. */
+public class PlayerJoinedMessage implements NetworkMessage {
+    private final int playerId;
+    private final String name;
+
+    public PlayerJoinedMessage(int playerId, String name) {
+        this.playerId = playerId;
+        this.name = name;
+    }
+
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public byte getOpcode() {
+        return NetworkConstants.PLAYER_JOINED;
+    }
+}
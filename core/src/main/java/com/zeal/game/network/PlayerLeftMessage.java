@@ -0,0 +1,19 @@
+package com.zeal.game.network;
+
+/** Retires a player id announced earlier by {@link PlayerJoinedMessage}. */
+public class PlayerLeftMessage implements NetworkMessage {
+    private final int playerId;
+
+    public PlayerLeftMessage(int playerId) {
+        this.playerId = playerId;
+    }
+
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    @Override
+    public byte getOpcode() {
+        return NetworkConstants.PLAYER_LEFT;
+    }
+}
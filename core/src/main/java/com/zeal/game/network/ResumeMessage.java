@@ -0,0 +1,56 @@
+package com.zeal.game.network;
+
+/**
+ * Sent instead of {@link HelloMessage} when reconnecting: asks the server to restore the session
+ * identified by the token from the previous {@link WelcomeMessage} and to replay the room's chat
+ * after {@code lastSequence}. An unknown or expired token is treated as a plain HELLO.
+ */
+public class ResumeMessage implements NetworkMessage {
+    private final int protocolVersion;
+    private final long sessionToken;
+    private final long lastSequence;
+    private final String name;
+    private final int features;
+
+    public ResumeMessage(long sessionToken, long lastSequence, String name) {
+        this(sessionToken, lastSequence, name, 0);
+    }
+
+    public ResumeMessage(long sessionToken, long lastSequence, String name, int features) {
+        this(NetworkConstants.PROTOCOL_VERSION, sessionToken, lastSequence, name, features);
+    }
+
+    public ResumeMessage(int protocolVersion, long sessionToken, long lastSequence, String name, int features) {
+        this.protocolVersion = protocolVersion;
+        this.sessionToken = sessionToken;
+        this.lastSequence = lastSequence;
+        this.name = name;
+        this.features = features;
+    }
+
+    public int getProtocolVersion() {
+        return protocolVersion;
+    }
+
+    public long getSessionToken() {
+        return sessionToken;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Optional features the client supports, as in {@link HelloMessage#getFeatures()}. */
+    public int getFeatures() {
+        return features;
+    }
+
+    @Override
+    public byte getOpcode() {
+        return NetworkConstants.RESUME;
+    }
+}
@@ -0,0 +1,29 @@
+package com.zeal.game.network;
+
+/**
+ * Server tells a client it is now in {@code room}. Chat lines of that room with a sequence number
+ * up to {@code sequence} were either delivered already (resume) or predate the join; everything
+ * newer will follow.
+ */
+public class RoomJoinedMessage implements NetworkMessage {
+    private final String room;
+    private final long sequence;
+
+    public RoomJoinedMessage(String room, long sequence) {
+        this.room = room;
+        this.sequence = sequence;
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public byte getOpcode() {
+        return NetworkConstants.ROOM_JOINED;
+    }
+}
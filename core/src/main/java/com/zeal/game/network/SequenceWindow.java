@@ -0,0 +1,46 @@
+package com.zeal.game.network;
+
+/**
+ * Duplicate filter for a stream of sequence numbers: remembers the highest number seen and, in
+ * one 64-bit mask, which of the {@value #SIZE} numbers below it have arrived. Tolerates reordering
+ * within the window (as an unreliable channel produces) at a fixed cost of two longs.
+ * Numbers start at 1; 0 means "unsequenced" and is always accepted. Not thread-safe.
+ */
+public final class SequenceWindow {
+    public static final int SIZE = 64;
+
+    private long highest;
+    // bit i set = (highest - i) has been seen; bit 0 is highest itself
+    private long seen;
+
+    /**
+     * Records {@code sequence} and returns true if it is new. Returns false for repeats and for
+     * numbers that fell behind the window, which can no longer be told apart from repeats.
+     */
+    public boolean accept(long sequence) {
+        if (sequence == 0) return true;
+        if (sequence > highest) {
+            long shift = sequence - highest;
+            seen = shift >= SIZE ? 1L : (seen << shift) | 1L;
+            highest = sequence;
+            return true;
+        }
+        long offset = highest - sequence;
+        if (offset >= SIZE) return false;
+        long bit = 1L << offset;
+        if ((seen & bit) != 0) return false;
+        seen |= bit;
+        return true;
+    }
+
+    /** Treat everything up to and including {@code sequence} as already seen. */
+    public void reset(long sequence) {
+        highest = sequence;
+        seen = -1L;
+    }
+
+    /** Highest sequence accepted so far (or set by {@link #reset}). */
+    public long getHighest() {
+        return highest;
+    }
+}
@@ -1,10 +1,23 @@
 package com.zeal.game.network;
 
 import com.zeal.game.network.server.GameServer;
+import com.zeal.game.network.server.GameServerMonitor;
+import com.zeal.game.network.server.ServerConfig;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class ServerLauncher {
+    /** Seconds between metrics dumps on stdout; 0 turns the dump off. */
+    public static final String METRICS_INTERVAL_PROPERTY = "zeal.metrics.dumpSeconds";
+    /** Acceptor threads (SO_REUSEPORT, epoll only); 0 or unset lets the server pick. */
+    public static final String ACCEPT_THREADS_PROPERTY = "zeal.server.acceptThreads";
+
     public static void main(String[] args) {
-        GameServer server = new GameServer(NetworkConstants.DEFAULT_PORT);
+        ServerConfig config = new ServerConfig()
+                .setAcceptThreads(Integer.getInteger(ACCEPT_THREADS_PROPERTY, 0));
+        GameServer server = new GameServer(NetworkConstants.DEFAULT_PORT, config);
         server.start();
         
         // Add shutdown hook
@@ -12,5 +25,17 @@ public class ServerLauncher {
         
         System.out.println("Server started on port " + NetworkConstants.DEFAULT_PORT);
         System.out.println("Press Ctrl+C to stop the server");
+
+        long interval = Long.getLong(METRICS_INTERVAL_PROPERTY, 10);
+        GameServerMonitor monitor = server.getMonitor();
+        if (interval > 0 && monitor != null) {
+            ScheduledExecutorService dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "metrics-dump");
+                thread.setDaemon(true);
+                return thread;
+            });
+            dumper.scheduleAtFixedRate(() -> System.out.println("--- metrics ---\n" + monitor.dump()),
+                    interval, interval, TimeUnit.SECONDS);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,19 @@
+package com.zeal.game.network;
+
+/** Client confirms it has reconstructed the snapshot for {@code tick}; it becomes the next baseline. */
+public class SnapshotAckMessage implements NetworkMessage {
+    private final long tick;
+
+    public SnapshotAckMessage(long tick) {
+        this.tick = tick;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    @Override
+    public byte getOpcode() {
+        return NetworkConstants.SNAPSHOT_ACK;
+    }
+}
@@ -0,0 +1,108 @@
+package com.zeal.game.network;
+
+import java.util.Arrays;
+
+/**
+ * Field-level diff and patch between {@link WorldSnapshotMessage}s. Both snapshots must list
+ * entity ids in ascending order, which lets diff and apply run as a single linear merge.
+ */
+public final class SnapshotDelta {
+    private static final int[] NO_IDS = new int[0];
+
+    private SnapshotDelta() {}
+
+    /** Delta that turns {@code baseline} (null = nothing known) into {@code current}. */
+    public static WorldDeltaMessage diff(WorldSnapshotMessage baseline, WorldSnapshotMessage current) {
+        int baseCount = baseline == null ? 0 : baseline.getEntityCount();
+        int curCount = current.getEntityCount();
+
+        int[] changedIds = new int[curCount];
+        byte[] masks = new byte[curCount];
+        float[] xs = new float[curCount];
+        float[] ys = new float[curCount];
+        int[] removedIds = baseCount == 0 ? NO_IDS : new int[baseCount];
+        int changed = 0;
+        int removed = 0;
+
+        int i = 0;
+        int j = 0;
+        while (i < baseCount || j < curCount) {
+            int baseId = i < baseCount ? baseline.getEntityId(i) : Integer.MAX_VALUE;
+            int curId = j < curCount ? current.getEntityId(j) : Integer.MAX_VALUE;
+            if (i < baseCount && (j >= curCount || baseId < curId)) {
+                removedIds[removed++] = baseId;
+                i++;
+            } else if (i >= baseCount || curId < baseId) {
+                // entity the receiver has not seen: send every field
+                changedIds[changed] = curId;
+                masks[changed] = (byte) WorldDeltaMessage.ALL_FIELDS;
+                xs[changed] = current.getX(j);
+                ys[changed] = current.getY(j);
+                changed++;
+                j++;
+            } else {
+                int mask = 0;
+                if (Float.floatToIntBits(baseline.getX(i)) != Float.floatToIntBits(current.getX(j))) mask |= WorldDeltaMessage.FIELD_X;
+                if (Float.floatToIntBits(baseline.getY(i)) != Float.floatToIntBits(current.getY(j))) mask |= WorldDeltaMessage.FIELD_Y;
+                if (mask != 0) {
+                    changedIds[changed] = curId;
+                    masks[changed] = (byte) mask;
+                    xs[changed] = current.getX(j);
+                    ys[changed] = current.getY(j);
+                    changed++;
+                }
+                i++;
+                j++;
+            }
+        }
+
+        long baselineTick = baseline == null ? WorldDeltaMessage.NO_BASELINE : baseline.getTick();
+        return new WorldDeltaMessage(current.getTick(), baselineTick,
+                Arrays.copyOf(changedIds, changed), Arrays.copyOf(masks, changed),
+                Arrays.copyOf(xs, changed), Arrays.copyOf(ys, changed),
+                removed == removedIds.length ? removedIds : Arrays.copyOf(removedIds, removed));
+    }
+
+    /** Reconstructs the full snapshot described by {@code delta} on top of {@code baseline} (null for a full delta). */
+    public static WorldSnapshotMessage apply(WorldSnapshotMessage baseline, WorldDeltaMessage delta) {
+        int baseCount = baseline == null ? 0 : baseline.getEntityCount();
+        int changedCount = delta.getChangedCount();
+        int removedCount = delta.getRemovedCount();
+
+        int capacity = baseCount + changedCount;
+        int[] ids = new int[capacity];
+        float[] xs = new float[capacity];
+        float[] ys = new float[capacity];
+        int size = 0;
+
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < baseCount || j < changedCount) {
+            int baseId = i < baseCount ? baseline.getEntityId(i) : Integer.MAX_VALUE;
+            int changedId = j < changedCount ? delta.getChangedId(j) : Integer.MAX_VALUE;
+            if (i < baseCount && (j >= changedCount || baseId < changedId)) {
+                while (k < removedCount && delta.getRemovedId(k) < baseId) k++;
+                if (k >= removedCount || delta.getRemovedId(k) != baseId) {
+                    ids[size] = baseId;
+                    xs[size] = baseline.getX(i);
+                    ys[size] = baseline.getY(i);
+                    size++;
+                }
+                i++;
+            } else {
+                boolean known = i < baseCount && baseId == changedId;
+                int mask = delta.getFieldMask(j);
+                ids[size] = changedId;
+                xs[size] = (mask & WorldDeltaMessage.FIELD_X) != 0 ? delta.getX(j) : known ? baseline.getX(i) : 0f;
+                ys[size] = (mask & WorldDeltaMessage.FIELD_Y) != 0 ? delta.getY(j) : known ? baseline.getY(i) : 0f;
+                size++;
+                if (known) i++;
+                j++;
+            }
+        }
+
+        return new WorldSnapshotMessage(delta.getTick(),
+                Arrays.copyOf(ids, size), Arrays.copyOf(xs, size), Arrays.copyOf(ys, size));
+    }
+}
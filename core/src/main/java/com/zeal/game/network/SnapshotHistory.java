@@ -0,0 +1,33 @@
+package com.zeal.game.network;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size ring of recent snapshots keyed by tick. The server keeps one per client (what it
+ * sent), the client keeps one of what it reconstructed; both look baselines up by tick.
+ * Not thread-safe.
+ */
+public class SnapshotHistory {
+    /** Ticks of history kept; at 30 Hz this is a little over a second of ack latency. */
+    public static final int CAPACITY = 32;
+
+    private final WorldSnapshotMessage[] ring = new WorldSnapshotMessage[CAPACITY];
+
+    public void put(WorldSnapshotMessage snapshot) {
+        ring[index(snapshot.getTick())] = snapshot;
+    }
+
+    /** The snapshot for {@code tick}, or null if it was never stored or has been overwritten. */
+    public WorldSnapshotMessage get(long tick) {
+        WorldSnapshotMessage snapshot = ring[index(tick)];
+        return snapshot != null && snapshot.getTick() == tick ? snapshot : null;
+    }
+
+    public void clear() {
+        Arrays.fill(ring, null);
+    }
+
+    private static int index(long tick) {
+        return (int) (tick & (CAPACITY - 1));
+    }
+}
@@ -0,0 +1,73 @@
+package com.zeal.game.network;
+
+import com.zeal.game.network.logging.NetworkLog;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+
+import java.util.Locale;
+
+/**
+ * Netty transport used by the server and client bootstraps. The native epoll transport is
+ * preferred on Linux; everything else falls back to NIO. Set the system property
+ * {@value #PROPERTY} to {@code nio} or {@code epoll} to force a choice.
+ */
+public enum TransportType {
+    NIO,
+    EPOLL;
+
+    public static final String PROPERTY = "zeal.network.transport";
+
+    private static final NetworkLog logger = NetworkLog.get(TransportType.class);
+
+    /** Best available transport, honouring the {@value #PROPERTY} override when it is usable. */
+    public static TransportType preferred() {
+        String forced = System.getProperty(PROPERTY);
+        if (forced != null && !forced.isEmpty()) {
+            try {
+                TransportType type = valueOf(forced.trim().toUpperCase(Locale.ROOT));
+                if (type.isAvailable()) return type;
+                logger.warning("Transport " + type + " requested but not available, falling back");
+            } catch (IllegalArgumentException e) {
+                logger.warning("Unknown transport '" + forced + "', falling back");
+            }
+        }
+        return EPOLL.isAvailable() ? EPOLL : NIO;
+    }
+
+    public boolean isAvailable() {
+        return this == NIO || Epoll.isAvailable();
+    }
+
+    /** Creates an event loop group for this transport; 0 threads means Netty's default. */
+    public EventLoopGroup newEventLoopGroup(int threads) {
+        return this == EPOLL ? new EpollEventLoopGroup(threads) : new NioEventLoopGroup(threads);
+    }
+
+    public Class<? extends ServerSocketChannel> serverChannelClass() {
+        return this == EPOLL ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    }
+
+    public Class<? extends SocketChannel> socketChannelClass() {
+        return this == EPOLL ? EpollSocketChannel.class : NioSocketChannel.class;
+    }
+
+    public Class<? extends DatagramChannel> datagramChannelClass() {
+        return this == EPOLL ? EpollDatagramChannel.class : NioDatagramChannel.class;
+    }
+
+    /** Whether several server channels can bind the same port to spread accepts (SO_REUSEPORT). */
+    public boolean supportsReusePort() {
+        return this == EPOLL;
+    }
+}
@@ -0,0 +1,40 @@
+package com.zeal.game.network;
+
+/**
+ * Server reply to {@link HelloMessage} or {@link ResumeMessage}: the compact id that stands for this
+ * player on the wire, the token that lets it resume this session after a dropped connection, and
+ * the optional features both ends will use.
+ */
+public class WelcomeMessage implements NetworkMessage {
+    private final int playerId;
+    private final long sessionToken;
+    private final int features;
+
+    public WelcomeMessage(int playerId, long sessionToken) {
+        this(playerId, sessionToken, 0);
+    }
+
+    public WelcomeMessage(int playerId, long sessionToken, int features) {
+        this.playerId = playerId;
+        this.sessionToken = sessionToken;
+        this.features = features;
+    }
+
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    public long getSessionToken() {
+        return sessionToken;
+    }
+
+    /** The subset of the client's features the server accepted. */
+    public int getFeatures() {
+        return features;
+    }
+
+    @Override
+    public byte getOpcode() {
+        return NetworkConstants.WELCOME;
+    }
+}
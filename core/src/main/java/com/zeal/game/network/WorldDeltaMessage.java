@@ -0,0 +1,80 @@
+package com.zeal.game.network;
+
+/**
+ * World state at {@code tick} expressed against an earlier snapshot the receiver acknowledged
+ * ({@code baselineTick}, or {@link #NO_BASELINE} for a full state). Only entities with changed
+ * fields are listed; {@code fieldMasks} says which fields follow for each of them
+ * ({@link #FIELD_X}, {@link #FIELD_Y}). Entity ids in both lists are ascending.
+ */
+public class WorldDeltaMessage implements NetworkMessage {
+    public static final long NO_BASELINE = 0;
+    public static final int FIELD_X = 1;
+    public static final int FIELD_Y = 1 << 1;
+    public static final int ALL_FIELDS = FIELD_X | FIELD_Y;
+
+    private final long tick;
+    private final long baselineTick;
+    private final int[] changedIds;
+    private final byte[] fieldMasks;
+    private final float[] xs;
+    private final float[] ys;
+    private final int[] removedIds;
+
+    public WorldDeltaMessage(long tick, long baselineTick, int[] changedIds, byte[] fieldMasks,
+                             float[] xs, float[] ys, int[] removedIds) {
+        this.tick = tick;
+        this.baselineTick = baselineTick;
+        this.changedIds = changedIds;
+        this.fieldMasks = fieldMasks;
+        this.xs = xs;
+        this.ys = ys;
+        this.removedIds = removedIds;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public long getBaselineTick() {
+        return baselineTick;
+    }
+
+    public boolean isFull() {
+        return baselineTick == NO_BASELINE;
+    }
+
+    public int getChangedCount() {
+        return changedIds.length;
+    }
+
+    public int getChangedId(int index) {
+        return changedIds[index];
+    }
+
+    public int getFieldMask(int index) {
+        return fieldMasks[index];
+    }
+
+    /** Only meaningful when the entry's mask contains {@link #FIELD_X}. */
+    public float getX(int index) {
+        return xs[index];
+    }
+
+    /** Only meaningful when the entry's mask contains {@link #FIELD_Y}. */
+    public float getY(int index) {
+        return ys[index];
+    }
+
+    public int getRemovedCount() {
+        return removedIds.length;
+    }
+
+    public int getRemovedId(int index) {
+        return removedIds[index];
+    }
+
+    @Override
+    public byte getOpcode() {
+        return NetworkConstants.WORLD_DELTA;
+    }
+}
@@ -0,0 +1,44 @@
+package com.zeal.game.network;
+
+/**
+ * Authoritative positions of all entities at a simulation tick. Arrays are parallel and
+ * owned by the message once constructed.
+ */
+public class WorldSnapshotMessage implements NetworkMessage {
+    private final long tick;
+    private final int[] entityIds;
+    private final float[] xs;
+    private final float[] ys;
+
+    public WorldSnapshotMessage(long tick, int[] entityIds, float[] xs, float[] ys) {
+        this.tick = tick;
+        this.entityIds = entityIds;
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getEntityCount() {
+        return entityIds.length;
+    }
+
+    public int getEntityId(int index) {
+        return entityIds[index];
+    }
+
+    public float getX(int index) {
+        return xs[index];
+    }
+
+    public float getY(int index) {
+        return ys[index];
+    }
+
+    @Override
+    public byte getOpcode() {
+        return NetworkConstants.WORLD_SNAPSHOT;
+    }
+}
@@ -0,0 +1,71 @@
+package com.zeal.game.network.client;
+
+import com.zeal.game.network.ChatMessage;
+import com.zeal.game.network.logging.NetworkLog;
+import io.netty.util.internal.PlatformDependent;
+
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Hands chat lines from the network thread to the render thread. Register it as the client's
+ * {@link GameClient.ChatMessageListener}: each line is copied into a pooled message and queued
+ * without locks, in Netty's bounded multi-producer single-consumer array queue (JCTools). The
+ * render loop calls {@link #drain} once per frame, so a burst of lines turns into one batch of
+ * UI work on the GL thread instead of scene2d being touched from Netty's thread or one
+ * {@code postRunnable} per line.
+ * <p>
+ * When the render thread falls behind by a whole queue (e.g. while the window is minimised),
+ * new lines are dropped and counted.
+ */
+public final class ChatInbox implements GameClient.ChatMessageListener {
+    private static final NetworkLog logger = NetworkLog.get(ChatInbox.class);
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final Queue<ChatMessage> queue;
+    private final AtomicLong dropped = new AtomicLong();
+
+    public ChatInbox() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ChatInbox(int capacity) {
+        this.queue = PlatformDependent.newFixedMpscQueue(capacity);
+    }
+
+    /** Network thread. */
+    @Override
+    public void onMessageReceived(ChatMessage message) {
+        // the decoder recycles its instance once we return, so queue a copy
+        ChatMessage copy = message.copy();
+        if (!queue.offer(copy)) {
+            copy.recycle();
+            long total = dropped.incrementAndGet();
+            logger.sampled(Level.WARNING, () -> "Chat inbox full, " + total + " lines dropped so far");
+        }
+    }
+
+    /**
+     * Passes up to {@code budget} queued lines to {@code consumer}, oldest first, and returns how
+     * many it passed; the rest wait for the next call. Render thread only. The messages are
+     * recycled after the consumer returns, so it must not keep them.
+     */
+    public int drain(int budget, GameClient.ChatMessageListener consumer) {
+        int count = 0;
+        ChatMessage message;
+        while (count < budget && (message = queue.poll()) != null) {
+            try {
+                consumer.onMessageReceived(message);
+            } finally {
+                message.recycle();
+            }
+            count++;
+        }
+        return count;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,173 @@
+package com.zeal.game.network.client;
+
+import com.zeal.game.network.NetworkConstants;
+import com.zeal.game.network.NetworkMessage;
+import com.zeal.game.network.WorldDeltaMessage;
+import com.zeal.game.network.codec.GameMessageDecoder;
+import com.zeal.game.network.codec.GameMessageEncoder;
+import com.zeal.game.network.logging.NetworkLog;
+import com.zeal.game.network.udp.StatePacker;
+import com.zeal.game.network.udp.StateReceiver;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.socket.DatagramPacket;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The client's UDP state channel for one connection. After WELCOME it binds itself to the
+ * session by sending BIND (retried a few times) until the server answers BOUND; from then on
+ * inputs and snapshot acks go out as datagrams, and world deltas coming in are handed to the
+ * {@link GameClient}. Everything sent within one event-loop tick shares a datagram.
+ * <p>
+ * Runs on the same event loop as the TCP channel, so deltas from either path are handled on
+ * one thread.
+ */
+class ClientDatagramHandler extends SimpleChannelInboundHandler<DatagramPacket> {
+    private static final NetworkLog logger = NetworkLog.get(ClientDatagramHandler.class);
+    private static final int BIND_ATTEMPTS = 8;
+    private static final long BIND_RETRY_MILLIS = 250;
+    private static final long PEER_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(NetworkConstants.UDP_PEER_TIMEOUT_MILLIS);
+
+    private final GameClient gameClient;
+    private final Channel connection;
+    private final InetSocketAddress server;
+    private final long token;
+    // event loop only
+    private final StatePacker packer;
+    private final StateReceiver receiver = new StateReceiver();
+    private final List<ByteBuf> frames = new ArrayList<>();
+    private final Runnable flushTask = this::flushPending;
+    private boolean flushScheduled;
+    private volatile Channel channel;
+    private volatile boolean bound;
+    // System.nanoTime() of the last BOUND or STATE datagram from the server
+    private volatile long lastHeardNanos;
+
+    ClientDatagramHandler(GameClient gameClient, Channel connection, long token, int redundancy) {
+        this.gameClient = gameClient;
+        this.connection = connection;
+        this.server = (InetSocketAddress) connection.remoteAddress();
+        this.token = token;
+        this.packer = new StatePacker(token, NetworkConstants.DEFAULT_UDP_MTU, redundancy);
+    }
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) {
+        channel = ctx.channel();
+        sendBind(0);
+        ctx.fireChannelActive();
+    }
+
+    private void sendBind(int attempt) {
+        if (bound || !channel.isActive() || !connection.isActive()) return;
+        if (attempt == BIND_ATTEMPTS) {
+            logger.info("No UDP path to " + server + ", world state stays on TCP");
+            return;
+        }
+        ByteBuf packet = channel.alloc().buffer(NetworkConstants.UDP_HEADER_BYTES);
+        packet.writeByte(NetworkConstants.UDP_BIND);
+        packet.writeLong(token);
+        channel.writeAndFlush(new DatagramPacket(packet, server), channel.voidPromise());
+        channel.eventLoop().schedule(() -> sendBind(attempt + 1), BIND_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /** True once the server confirmed the binding; until then state goes over TCP. */
+    boolean isBound() {
+        return bound && channel.isActive();
+    }
+
+    /**
+     * Bound and heard from within the server's own peer timeout. Past that the server has most
+     * likely gone back to TCP as well (e.g. a NAT mapping expired), so state should follow.
+     */
+    boolean isLive() {
+        return isBound() && System.nanoTime() - lastHeardNanos < PEER_TIMEOUT_NANOS;
+    }
+
+    void close() {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /** Queues an input or ack for the next datagram; falls back to TCP for frames that do not fit. */
+    void send(NetworkMessage message) {
+        if (channel.eventLoop().inEventLoop()) {
+            queue(message);
+        } else {
+            channel.eventLoop().execute(() -> queue(message));
+        }
+    }
+
+    private void queue(NetworkMessage message) {
+        if (!channel.isActive()) return;
+        ByteBuf frame = GameMessageEncoder.encode(channel.alloc(), message, 0L);
+        try {
+            if (!packer.fits(frame.readableBytes())) {
+                connection.writeAndFlush(message, connection.voidPromise());
+                return;
+            }
+            if (packer.isFull()) {
+                flushPending();
+            }
+            packer.offer(frame);
+        } finally {
+            frame.release();
+        }
+        if (!flushScheduled) {
+            flushScheduled = true;
+            channel.eventLoop().execute(flushTask);
+        }
+    }
+
+    private void flushPending() {
+        flushScheduled = false;
+        if (packer.hasPending() && channel.isActive()) {
+            packer.flush(channel, server);
+            channel.flush();
+        }
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, DatagramPacket packet) {
+        ByteBuf in = packet.content();
+        if (!server.equals(packet.sender()) || in.readableBytes() < NetworkConstants.UDP_HEADER_BYTES) return;
+        byte kind = in.readByte();
+        if (in.readLong() != token) return;
+        if (kind == NetworkConstants.UDP_BOUND || kind == NetworkConstants.UDP_STATE) {
+            lastHeardNanos = System.nanoTime();
+        }
+        if (kind == NetworkConstants.UDP_BOUND) {
+            if (!bound) {
+                bound = true;
+                logger.fine("UDP state channel bound to " + server);
+            }
+        } else if (kind == NetworkConstants.UDP_STATE) {
+            try {
+                receiver.read(in, frames);
+                for (int i = 0; i < frames.size(); i++) {
+                    NetworkMessage msg = GameMessageDecoder.decodeState(frames.get(i), NetworkConstants.SERVER_PLAYER_ID);
+                    if (msg instanceof WorldDeltaMessage) {
+                        gameClient.handleDelta(connection, (WorldDeltaMessage) msg);
+                    }
+                }
+            } catch (RuntimeException e) {
+                logger.fine("Dropping malformed datagram: " + e.getMessage());
+            } finally {
+                frames.clear();
+            }
+        }
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        // e.g. ICMP port unreachable while the server restarts; TCP notices a real outage
+        logger.fine("Datagram error: " + cause.getMessage());
+    }
+}
@@ -0,0 +1,85 @@
+package com.zeal.game.network.client;
+
+import com.zeal.game.network.TransportType;
+import com.zeal.game.network.logging.NetworkLog;
+import io.netty.channel.EventLoopGroup;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Process-wide client networking: one small, long-lived event loop group and the current game
+ * connection. Screens ask for a connection instead of building their own, so entering a game
+ * reuses a live channel (and the loop threads) rather than paying thread start-up and a fresh
+ * TCP handshake each time. {@link #shutdown()} is for application exit.
+ */
+public final class ClientNetworkService {
+    private static final NetworkLog logger = NetworkLog.get(ClientNetworkService.class);
+    /**
+     * A channel is bound to one loop for its lifetime, so a second thread would sit idle with the
+     * single game connection (and its UDP state channel, which shares the connection's loop).
+     */
+    private static final int LOOP_THREADS = 1;
+
+    private static ClientNetworkService instance;
+
+    private final TransportType transport = TransportType.preferred();
+    private EventLoopGroup group;
+    private GameClient client;
+
+    private ClientNetworkService() {
+    }
+
+    public static synchronized ClientNetworkService get() {
+        if (instance == null) {
+            instance = new ClientNetworkService();
+        }
+        return instance;
+    }
+
+    /** The shared group, created on first use. */
+    public synchronized EventLoopGroup getEventLoopGroup() {
+        if (group == null) {
+            group = transport.newEventLoopGroup(LOOP_THREADS);
+        }
+        return group;
+    }
+
+    /**
+     * A connected client for the given server and player name. If the current connection already
+     * matches and is alive it is returned as is; otherwise it is closed and a new one is opened on
+     * the shared group. The future fails if the server cannot be reached.
+     */
+    public synchronized CompletableFuture<GameClient> connect(String host, int port, String username) {
+        if (client != null && client.isConnected() && client.matches(host, port, username)) {
+            return CompletableFuture.completedFuture(client);
+        }
+        disconnect();
+        GameClient newClient = new GameClient(host, port, username, getEventLoopGroup());
+        newClient.setTransport(transport);
+        client = newClient;
+        return newClient.connect().thenApply(ignored -> newClient);
+    }
+
+    /** The current connection, or null when none was made or it was closed. */
+    public synchronized GameClient getClient() {
+        return client;
+    }
+
+    /** Closes the current connection; the loop group stays up for the next one. */
+    public synchronized void disconnect() {
+        if (client != null) {
+            client.disconnect();
+            client = null;
+        }
+    }
+
+    /** Closes the connection and stops the loop threads. */
+    public synchronized void shutdown() {
+        disconnect();
+        if (group != null) {
+            group.shutdownGracefully();
+            group = null;
+            logger.info("Client network service stopped");
+        }
+    }
+}
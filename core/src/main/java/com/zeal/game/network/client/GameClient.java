@@ -2,66 +2,179 @@ package com.zeal.game.network.client;
 
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.*;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
-import com.zeal.game.network.codec.ChatMessageDecoder;
-import com.zeal.game.network.codec.ChatMessageEncoder;
+import com.zeal.game.network.codec.FrameCompressor;
+import com.zeal.game.network.codec.FrameDecompressor;
+import com.zeal.game.network.codec.GameMessageDecoder;
+import com.zeal.game.network.codec.GameMessageEncoder;
+import com.zeal.game.network.codec.ProtocolSession;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.handler.codec.LengthFieldPrepender;
 import com.zeal.game.network.ChatMessage;
+import com.zeal.game.network.HandshakeRejectedMessage;
+import com.zeal.game.network.HelloMessage;
+import com.zeal.game.network.JoinRoomMessage;
 import com.zeal.game.network.NetworkConstants;
+import com.zeal.game.network.NetworkMessage;
+import com.zeal.game.network.PlayerInputMessage;
+import com.zeal.game.network.ResumeMessage;
+import com.zeal.game.network.RoomJoinedMessage;
+import com.zeal.game.network.SequenceWindow;
+import com.zeal.game.network.SnapshotAckMessage;
+import com.zeal.game.network.SnapshotDelta;
+import com.zeal.game.network.SnapshotHistory;
+import com.zeal.game.network.WorldDeltaMessage;
+import com.zeal.game.network.WorldSnapshotMessage;
+import com.zeal.game.network.TransportType;
+import com.zeal.game.network.logging.NetworkLog;
 
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.concurrent.CompletableFuture;
-import java.util.logging.Logger;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class GameClient {
-    private static final Logger logger = Logger.getLogger(GameClient.class.getName());
+    private static final NetworkLog logger = NetworkLog.get(GameClient.class);
+    /** Chat input starting with this switches rooms instead of being sent as chat. */
+    public static final String JOIN_ROOM_COMMAND = "/join ";
+    /** Also serves as the reachability check when entering a game, so keep it short. */
+    public static final int CONNECT_TIMEOUT_MILLIS = 3000;
+    // how long the server may take to answer HELLO once connected
+    private static final long HANDSHAKE_TIMEOUT_MILLIS = 5000;
+    // server frames can be large (full world states)
+    private static final int MAX_FRAME_BYTES = 1024 * 1024;
+    // reconnect backoff: doubles per failed attempt, with +-20% jitter
+    private static final long RECONNECT_BASE_MILLIS = 250;
+    private static final long RECONNECT_MAX_MILLIS = 10_000;
+    // the server only tells re-sent lines apart within its sequence window; older ones are given up
+    private static final int MAX_UNACKED_CHAT = SequenceWindow.SIZE;
     
     private final String host;
     private final int port;
-    private Channel clientChannel;
-    private EventLoopGroup group;
+    private volatile Channel clientChannel;
+    // set up by openChannel() and torn down by disconnect(), which a connect timeout calls from
+    // the future's timer thread; read once into a local before use
+    private volatile EventLoopGroup group;
+    // true when the group was created here and must be shut down with the client
+    private volatile boolean ownsGroup;
     private final String username;
     private ChatMessageListener messageListener;
+    private SnapshotListener snapshotListener;
+    // reconstructed snapshots, used as baselines for incoming deltas (network thread only)
+    private final SnapshotHistory snapshots = new SnapshotHistory();
+    private TransportType transport = TransportType.preferred();
+    // assigned by the server in WELCOME
+    private volatile int playerId = NetworkConstants.SERVER_PLAYER_ID;
+    // session resume state: token from WELCOME, current room and the chat sequences seen in it
+    private volatile long sessionToken;
+    private volatile String room;
+    private final SequenceWindow roomSequences = new SequenceWindow(); // event loop only
+    // numbers our own chat lines for the whole session, so the server can drop re-sent ones
+    private final AtomicLong senderSequence = new AtomicLong();
+    // our lines the server has not echoed back yet, oldest first; re-sent after a resume
+    private final ArrayDeque<ChatMessage> unackedChat = new ArrayDeque<>(); // guarded by itself
+    // completed by WELCOME (or failed by a rejection) for the pending connect()
+    private volatile CompletableFuture<Void> handshake;
+    // set by disconnect() or a rejection; stops reconnect attempts
+    private volatile boolean closing;
+    private int reconnectAttempts; // event loop only
+    // UDP state channel of the current connection; null until opened or when disabled
+    private volatile ClientDatagramHandler datagram;
+    private boolean udpEnabled = true;
+    private boolean compressionEnabled = true;
+    private int udpRedundancy = NetworkConstants.DEFAULT_UDP_REDUNDANCY;
+    // newest world tick applied; deltas may arrive late over UDP or overtake each other across paths
+    private long lastDeltaTick = -1; // event loop only
 
     public GameClient(String username) {
         this(NetworkConstants.DEFAULT_HOST, NetworkConstants.DEFAULT_PORT, username);
     }
 
     public GameClient(String host, int port, String username) {
+        this(host, port, username, null);
+    }
+
+    /**
+     * Client running on an existing event loop group (see {@link ClientNetworkService}), which it
+     * will not shut down. With a null group the client creates its own on first connect.
+     */
+    public GameClient(String host, int port, String username, EventLoopGroup group) {
         this.host = host;
         this.port = port;
         this.username = username;
+        this.group = group;
     }
 
+    /**
+     * Connects and introduces the player. The future completes once the server assigned a player
+     * id, and fails if the server cannot be reached, does not answer, or turns the client away.
+     * A server that accepts the connection but never answers is given up on: the channel is
+     * closed and the client does not try to reconnect.
+     */
     public CompletableFuture<Void> connect() {
+        closing = false;
+        CompletableFuture<Void> pending = new CompletableFuture<>();
+        handshake = pending;
+        openChannel().whenComplete((ignored, error) -> {
+            if (error != null) pending.completeExceptionally(error);
+        });
+        pending.orTimeout(CONNECT_TIMEOUT_MILLIS + HANDSHAKE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, error) -> {
+                    if (error instanceof TimeoutException && handshake == pending) {
+                        logger.warning("No answer from " + host + ":" + port + ", giving up");
+                        handshake = null;
+                        disconnect();
+                    }
+                });
+        return pending;
+    }
+
+    private CompletableFuture<Void> openChannel() {
         CompletableFuture<Void> future = new CompletableFuture<>();
-        group = new NioEventLoopGroup();
+        snapshots.clear();
+        lastDeltaTick = -1;
+        EventLoopGroup loops = group;
+        if (loops == null) {
+            // standalone client: one small group, kept across reconnects until disconnect()
+            loops = group = transport.newEventLoopGroup(1);
+            ownsGroup = true;
+        }
 
         try {
             Bootstrap bootstrap = new Bootstrap();
-            bootstrap.group(group)
-                    .channel(NioSocketChannel.class)
+            bootstrap.group(loops)
+                    .channel(transport.socketChannelClass())
+                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, CONNECT_TIMEOUT_MILLIS)
                     .handler(new ChannelInitializer<SocketChannel>() {
                         @Override
                         protected void initChannel(SocketChannel ch) {
+                            ProtocolSession.install(ch, System.currentTimeMillis());
                             ChannelPipeline pipeline = ch.pipeline();
                             pipeline.addLast(
-                                // inbound framing -> message decoder -> handler
-                                new LengthFieldBasedFrameDecoder(1048576, 0, 4, 0, 4),
-                                new ChatMessageDecoder(),
+                                // inbound framing -> decompressor -> message decoder -> handler
+                                new LengthFieldBasedFrameDecoder(MAX_FRAME_BYTES, 0, 4, 0, 4),
+                                new FrameDecompressor(MAX_FRAME_BYTES),
+                                new GameMessageDecoder(),
                                 new GameClientHandler(GameClient.this),
                                 // outbound encoder and length prepender (added after handler so outbound order is encoder then prepender)
                                 new LengthFieldPrepender(4),
-                                new ChatMessageEncoder()
+                                new FrameCompressor(NetworkConstants.DEFAULT_COMPRESSION_THRESHOLD),
+                                new GameMessageEncoder()
                             );
                         }
                     });
 
             ChannelFuture channelFuture = bootstrap.connect(host, port);
             channelFuture.addListener((ChannelFutureListener) f -> {
-                if (f.isSuccess()) {
+                if (f.isSuccess() && closing) {
+                    // disconnect() (or a timed-out connect) got here first
+                    f.channel().close();
+                    future.completeExceptionally(new IOException("Client closed while connecting"));
+                } else if (f.isSuccess()) {
                     clientChannel = f.channel();
                     logger.info("Connected to server " + host + ":" + port);
                     future.complete(null);
@@ -80,7 +193,19 @@ public class GameClient {
 
     public void sendMessage(String message) {
         if (clientChannel != null && clientChannel.isActive()) {
-            ChatMessage chatMessage = new ChatMessage(username, message);
+            if (message.startsWith(JOIN_ROOM_COMMAND)) {
+                joinRoom(message.substring(JOIN_ROOM_COMMAND.length()));
+                return;
+            }
+            ChatMessage chatMessage = new ChatMessage(playerId, username, message);
+            chatMessage.setSenderSequence(senderSequence.incrementAndGet());
+            // proximity chat is not resumable, so it is never re-sent either
+            if (!message.startsWith(NetworkConstants.LOCAL_CHAT_PREFIX)) {
+                synchronized (unackedChat) {
+                    if (unackedChat.size() == MAX_UNACKED_CHAT) unackedChat.pollFirst();
+                    unackedChat.addLast(chatMessage);
+                }
+            }
             clientChannel.writeAndFlush(chatMessage).addListener((ChannelFutureListener) future -> {
                 if (!future.isSuccess()) {
                     logger.warning("Failed to send message: " + future.cause().getMessage());
@@ -89,19 +214,276 @@ public class GameClient {
         }
     }
 
+    /**
+     * Asks the server to move us to another room. Nothing changes locally until the server answers
+     * with ROOM_JOINED ({@link RoomJoinedMessage}), which {@link #handleRoomJoined} applies.
+     */
+    public void joinRoom(String room) {
+        if (clientChannel != null && clientChannel.isActive()) {
+            clientChannel.writeAndFlush(new JoinRoomMessage(room.trim()), clientChannel.voidPromise());
+        }
+    }
+
+    /** Send the current movement intent; the server applies it on its next simulation tick. */
+    public void sendInput(float moveX, float moveY) {
+        if (clientChannel != null && clientChannel.isActive()) {
+            sendState(clientChannel, new PlayerInputMessage(moveX, moveY));
+        }
+    }
+
+    /** Inputs and acks go over UDP once bound, everything else (and any fallback) over TCP. */
+    private void sendState(Channel channel, NetworkMessage message) {
+        ClientDatagramHandler udp = datagram;
+        if (udp != null && udp.isBound()) {
+            udp.send(message);
+            if (udp.isLive()) return;
+            // UDP went quiet: TCP carries the state, and the datagrams keep probing so the
+            // server can switch back once they get through again (inputs and acks are idempotent)
+        }
+        channel.writeAndFlush(message, channel.voidPromise());
+    }
+
     public void disconnect() {
+        closing = true;
+        closeDatagram();
         if (clientChannel != null) {
             clientChannel.close();
         }
-        if (group != null) {
-            group.shutdownGracefully();
+        EventLoopGroup owned = group;
+        if (ownsGroup && owned != null) {
+            group = null;
+            ownsGroup = false;
+            owned.shutdownGracefully();
         }
     }
 
+    public boolean isConnected() {
+        return clientChannel != null && clientChannel.isActive();
+    }
+
+    /** Whether this client talks to {@code host:port} as {@code username}. */
+    public boolean matches(String host, int port, String username) {
+        return this.host.equals(host) && this.port == port && this.username.equals(username);
+    }
+
+    /** Whether world state may use a UDP channel next to the TCP connection; call before connect(). */
+    public void setUdpEnabled(boolean udpEnabled) {
+        this.udpEnabled = udpEnabled;
+    }
+
+    /** Previously sent inputs and acks repeated in every datagram; call before connect(). */
+    public void setUdpRedundancy(int udpRedundancy) {
+        this.udpRedundancy = udpRedundancy;
+    }
+
+    /** Whether to offer frame compression to the server at handshake; call before connect(). */
+    public void setCompressionEnabled(boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+    }
+
+    /** Override the transport picked by {@link TransportType#preferred()}; call before connect(). */
+    public void setTransport(TransportType transport) {
+        this.transport = transport;
+    }
+
     public void setMessageListener(ChatMessageListener listener) {
         this.messageListener = listener;
     }
 
+    public String getUsername() {
+        return username;
+    }
+
+    /** Player id assigned by the server, or {@link NetworkConstants#SERVER_PLAYER_ID} before the handshake completes. */
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    public void setSnapshotListener(SnapshotListener listener) {
+        this.snapshotListener = listener;
+    }
+
+    void handleDelta(Channel channel, WorldDeltaMessage delta) {
+        if (delta.getTick() <= lastDeltaTick) return;
+        WorldSnapshotMessage baseline = null;
+        if (!delta.isFull()) {
+            baseline = snapshots.get(delta.getBaselineTick());
+            if (baseline == null) {
+                // Baseline already evicted: drop it and keep quiet. Our last ack ages out of the
+                // server's ring too, after which it falls back to a full state.
+                logger.fine("Missing snapshot baseline " + delta.getBaselineTick());
+                return;
+            }
+        }
+        WorldSnapshotMessage snapshot = SnapshotDelta.apply(baseline, delta);
+        snapshots.put(snapshot);
+        lastDeltaTick = snapshot.getTick();
+        sendState(channel, new SnapshotAckMessage(snapshot.getTick()));
+        if (snapshotListener != null) {
+            snapshotListener.onSnapshot(snapshot);
+        }
+    }
+
+    void handleWelcome(Channel channel, int assignedId, long token, int features) {
+        boolean resumed = sessionToken != 0 && token == sessionToken;
+        if (!resumed) {
+            // a fresh session on the server starts numbering from scratch
+            senderSequence.set(0);
+            synchronized (unackedChat) {
+                unackedChat.clear();
+            }
+        }
+        playerId = assignedId;
+        sessionToken = token;
+        reconnectAttempts = 0;
+        ProtocolSession session = ProtocolSession.get(channel);
+        session.setPlayer(assignedId, username);
+        session.setFeatures(features);
+        logger.info((resumed ? "Resumed session as player " : "Joined as player ") + assignedId);
+        openDatagram(channel, token);
+        if (resumed) {
+            resendUnackedChat(channel);
+        }
+        completeHandshake(null);
+    }
+
+    /**
+     * Our own line came back from the server, so it was relayed: it and everything we sent before
+     * it (the server relays a connection's lines in order) need no re-sending.
+     */
+    void acknowledgeChat(long sequence) {
+        if (sequence == 0) return;
+        synchronized (unackedChat) {
+            while (!unackedChat.isEmpty() && unackedChat.peekFirst().getSenderSequence() <= sequence) {
+                unackedChat.pollFirst();
+            }
+        }
+    }
+
+    /**
+     * Lines sent before the connection dropped may or may not have reached the server. They go out
+     * again with their original sender sequence, so the server drops the ones it already relayed.
+     */
+    private void resendUnackedChat(Channel channel) {
+        synchronized (unackedChat) {
+            if (unackedChat.isEmpty()) return;
+            logger.info("Re-sending " + unackedChat.size() + " unacknowledged chat line(s)");
+            for (ChatMessage chat : unackedChat) {
+                channel.write(chat, channel.voidPromise());
+            }
+        }
+        channel.flush();
+    }
+
+    /** The server refused us, e.g. for a protocol mismatch; retrying would not help. */
+    void handleRejected(HandshakeRejectedMessage rejected) {
+        closing = true;
+        logger.severe("Server rejected connection: " + rejected.getReason());
+        completeHandshake(new IOException(rejected.getReason()));
+    }
+
+    private void completeHandshake(Throwable error) {
+        CompletableFuture<Void> pending = handshake;
+        if (pending == null) return;
+        handshake = null;
+        if (error == null) {
+            pending.complete(null);
+        } else {
+            pending.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Opens the UDP state channel for this connection on the connection's own event loop. Until
+     * the server confirms the binding (or if it never does) state keeps flowing over TCP.
+     */
+    private void openDatagram(Channel channel, long token) {
+        closeDatagram();
+        if (!udpEnabled) return;
+        ClientDatagramHandler handler = new ClientDatagramHandler(this, channel, token, udpRedundancy);
+        new Bootstrap()
+                .group(channel.eventLoop())
+                .channel(transport.datagramChannelClass())
+                .handler(handler)
+                .bind(0)
+                .addListener((ChannelFutureListener) f -> {
+                    if (!f.isSuccess()) {
+                        logger.warning("Failed to open UDP state channel: " + f.cause().getMessage());
+                    } else if (channel != clientChannel || !channel.isActive()) {
+                        f.channel().close();
+                    } else {
+                        datagram = handler;
+                        f.channel().closeFuture().addListener(closed -> {
+                            if (datagram == handler) datagram = null;
+                        });
+                    }
+                });
+    }
+
+    private void closeDatagram() {
+        ClientDatagramHandler udp = datagram;
+        datagram = null;
+        if (udp != null) {
+            udp.close();
+        }
+    }
+
+    /** First frame on a new connection: resume the previous session if there is one. */
+    NetworkMessage handshakeMessage() {
+        int features = compressionEnabled ? NetworkConstants.FEATURE_COMPRESSION : 0;
+        if (sessionToken != 0) {
+            return new ResumeMessage(sessionToken, roomSequences.getHighest(), username, features);
+        }
+        return new HelloMessage(username, features);
+    }
+
+    void handleRoomJoined(RoomJoinedMessage joined) {
+        room = joined.getRoom();
+        roomSequences.reset(joined.getSequence());
+    }
+
+    /**
+     * Tracks the room's chat sequence. Returns false for a line already seen (a replayed line
+     * can overlap with live delivery); unsequenced lines are always accepted.
+     */
+    boolean acceptSequence(long sequence) {
+        return roomSequences.accept(sequence);
+    }
+
+    /** The connection closed. Unless we closed it ourselves, try to get the session back. */
+    void handleConnectionLost(Channel channel) {
+        if (channel == clientChannel) {
+            closeDatagram();
+            completeHandshake(new IOException("Connection closed before the server accepted it"));
+        }
+        if (closing || channel != clientChannel || sessionToken == 0) return;
+        logger.warning("Connection to " + host + ":" + port + " lost, reconnecting");
+        scheduleReconnect();
+    }
+
+    private void scheduleReconnect() {
+        EventLoopGroup loops = group;
+        if (closing || loops == null) return;
+        long delay = Math.min(RECONNECT_MAX_MILLIS, RECONNECT_BASE_MILLIS << Math.min(reconnectAttempts, 16));
+        delay += (long) (delay * (ThreadLocalRandom.current().nextDouble(0.4) - 0.2));
+        reconnectAttempts++;
+        try {
+            loops.schedule(() -> {
+                if (closing) return;
+                openChannel().whenComplete((ignored, error) -> {
+                    if (error != null) scheduleReconnect();
+                });
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // the event loop group is shutting down; nothing to reconnect with
+        }
+    }
+
+    /** Room the server last placed us in, or null before the first join. */
+    public String getRoom() {
+        return room;
+    }
+
     void handleMessage(ChatMessage message) {
         if (messageListener != null) {
             messageListener.onMessageReceived(message);
@@ -109,6 +491,15 @@ public class GameClient {
     }
 
     public interface ChatMessageListener {
+        /**
+         * Called on the network thread; the message is pooled and must not be kept after returning.
+         * UI code should receive chat through a {@link ChatInbox} instead.
+         */
         void onMessageReceived(ChatMessage message);
     }
-}
\ No newline at end of file
+
+    public interface SnapshotListener {
+        /** Called on the network thread for every authoritative world snapshot. */
+        void onSnapshot(WorldSnapshotMessage snapshot);
+    }
+}
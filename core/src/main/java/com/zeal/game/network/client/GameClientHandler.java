@@ -3,11 +3,17 @@ package com.zeal.game.network.client;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import com.zeal.game.network.ChatMessage;
+import com.zeal.game.network.HandshakeRejectedMessage;
+import com.zeal.game.network.NetworkMessage;
+import com.zeal.game.network.RoomJoinedMessage;
+import com.zeal.game.network.WelcomeMessage;
+import com.zeal.game.network.WorldDeltaMessage;
+import com.zeal.game.network.logging.NetworkLog;
 
-import java.util.logging.Logger;
+import java.util.logging.Level;
 
-public class GameClientHandler extends SimpleChannelInboundHandler<ChatMessage> {
-    private static final Logger logger = Logger.getLogger(GameClientHandler.class.getName());
+public class GameClientHandler extends SimpleChannelInboundHandler<NetworkMessage> {
+    private static final NetworkLog logger = NetworkLog.get(GameClientHandler.class);
     private final GameClient gameClient;
 
     public GameClientHandler(GameClient gameClient) {
@@ -15,9 +21,48 @@ public class GameClientHandler extends SimpleChannelInboundHandler<ChatMessage>
     }
 
     @Override
-    protected void channelRead0(ChannelHandlerContext ctx, ChatMessage msg) {
-        logger.info("Received message: " + msg);
-        gameClient.handleMessage(msg);
+    public void channelActive(ChannelHandlerContext ctx) {
+        // introduce ourselves (or resume the previous session); afterwards the server refers to us by
+        // player id. Written from the channel so it passes the encoder, which sits after this handler.
+        ctx.channel().writeAndFlush(gameClient.handshakeMessage());
+        ctx.fireChannelActive();
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, NetworkMessage msg) {
+        if (msg instanceof ChatMessage) {
+            ChatMessage chat = (ChatMessage) msg;
+            try {
+                if (chat.getSenderId() == gameClient.getPlayerId()) {
+                    // our own line, echoed by the server
+                    gameClient.acknowledgeChat(chat.getSenderSequence());
+                }
+                if (!gameClient.acceptSequence(chat.getSequence())) {
+                    return; // already delivered before a resume
+                }
+                logger.sampled(Level.INFO, () -> "Received message: " + chat);
+                gameClient.handleMessage(chat);
+            } finally {
+                chat.recycle();
+            }
+        } else if (msg instanceof WorldDeltaMessage) {
+            gameClient.handleDelta(ctx.channel(), (WorldDeltaMessage) msg);
+        } else if (msg instanceof WelcomeMessage) {
+            WelcomeMessage welcome = (WelcomeMessage) msg;
+            gameClient.handleWelcome(ctx.channel(), welcome.getPlayerId(), welcome.getSessionToken(),
+                    welcome.getFeatures());
+        } else if (msg instanceof RoomJoinedMessage) {
+            gameClient.handleRoomJoined((RoomJoinedMessage) msg);
+        } else if (msg instanceof HandshakeRejectedMessage) {
+            gameClient.handleRejected((HandshakeRejectedMessage) msg);
+        }
+        // PLAYER_JOINED / PLAYER_LEFT only update the session name table in the decoder
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+        gameClient.handleConnectionLost(ctx.channel());
+        ctx.fireChannelInactive();
     }
 
     @Override
@@ -25,4 +70,4 @@ public class GameClientHandler extends SimpleChannelInboundHandler<ChatMessage>
         logger.warning("Exception caught: " + cause.getMessage());
         ctx.close();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,101 @@
+package com.zeal.game.network.codec;
+
+import com.zeal.game.network.NetworkConstants;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageEncoder;
+import io.netty.util.concurrent.FastThreadLocal;
+
+import java.util.List;
+import java.util.zip.Deflater;
+
+import static com.zeal.game.network.codec.WireFormat.*;
+
+/**
+ * Compresses large outbound frames once the handshake enabled
+ * {@link NetworkConstants#FEATURE_COMPRESSION} on the connection. Frames up to the threshold,
+ * which covers almost all chat, pass through untouched; bigger ones (full snapshots, large
+ * deltas) are sent as
+ * <pre>
+ * [opcode | COMPRESSED_FLAG][payloadLength:varint][raw deflate of the payload]
+ * </pre>
+ * unless that does not make them smaller. Sits between the message encoder and the length
+ * prepender. Broadcasts are compressed once up front with {@link #compress(ByteBufAllocator, ByteBuf)}
+ * and arrive here with the flag already set; those pass through as they are. Uses the JDK's
+ * deflate at its fastest level, so no extra dependency is needed.
+ */
+public class FrameCompressor extends MessageToMessageEncoder<ByteBuf> {
+    private final int threshold;
+    // one per channel, reset for every frame
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+    // for fan-out frames, which are compressed on whichever thread encodes them
+    private static final FastThreadLocal<Deflater> SHARED_DEFLATER = new FastThreadLocal<Deflater>() {
+        @Override
+        protected Deflater initialValue() {
+            return new Deflater(Deflater.BEST_SPEED, true);
+        }
+
+        @Override
+        protected void onRemoval(Deflater deflater) {
+            deflater.end();
+        }
+    };
+
+    public FrameCompressor(int threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, ByteBuf frame, List<Object> out) {
+        int length = frame.readableBytes();
+        if (length > threshold && !isCompressed(frame)
+                && ProtocolSession.get(ctx.channel()).hasFeature(NetworkConstants.FEATURE_COMPRESSION)) {
+            ByteBuf compressed = compress(ctx.alloc(), deflater, frame);
+            if (compressed != null) {
+                out.add(compressed);
+                return;
+            }
+        }
+        out.add(frame.retain());
+    }
+
+    /**
+     * Compressed copy of an encoded frame for fan-out, or null if it would not be smaller. Only
+     * channels that negotiated {@link NetworkConstants#FEATURE_COMPRESSION} may be sent the copy;
+     * the caller owns it and {@code frame} is left as is.
+     */
+    public static ByteBuf compress(ByteBufAllocator alloc, ByteBuf frame) {
+        return compress(alloc, SHARED_DEFLATER.get(), frame);
+    }
+
+    /** Whether the frame already carries {@link NetworkConstants#COMPRESSED_FLAG}. */
+    public static boolean isCompressed(ByteBuf frame) {
+        return frame.isReadable() && (frame.getByte(frame.readerIndex()) & NetworkConstants.COMPRESSED_FLAG) != 0;
+    }
+
+    private static ByteBuf compress(ByteBufAllocator alloc, Deflater deflater, ByteBuf frame) {
+        int length = frame.readableBytes();
+        int index = frame.readerIndex();
+        int payload = length - 1;
+        ByteBuf out = alloc.buffer(length);
+        out.writeByte(frame.getByte(index) | NetworkConstants.COMPRESSED_FLAG);
+        writeVarInt(out, payload);
+        deflater.reset();
+        deflater.setInput(frame.nioBuffer(index + 1, payload));
+        deflater.finish();
+        int written = deflater.deflate(out.nioBuffer(out.writerIndex(), length - out.writerIndex()));
+        if (!deflater.finished()) {
+            // ran out of room: the compressed form is no smaller
+            out.release();
+            return null;
+        }
+        out.writerIndex(out.writerIndex() + written);
+        return out;
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        deflater.end();
+    }
+}
@@ -0,0 +1,67 @@
+package com.zeal.game.network.codec;
+
+import com.zeal.game.network.NetworkConstants;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.MessageToMessageDecoder;
+
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static com.zeal.game.network.codec.WireFormat.*;
+
+/**
+ * Restores frames written by {@link FrameCompressor}; frames without the compressed flag pass
+ * through. Always installed, as the flag makes every frame self-describing. The announced size
+ * is checked against the same limit as the wire frames, so a small frame cannot inflate into an
+ * arbitrarily large one.
+ */
+public class FrameDecompressor extends MessageToMessageDecoder<ByteBuf> {
+    private final int maxFrameBytes;
+    // one per channel, reset for every frame
+    private final Inflater inflater = new Inflater(true);
+
+    public FrameDecompressor(int maxFrameBytes) {
+        this.maxFrameBytes = maxFrameBytes;
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+        int opcode = in.getUnsignedByte(in.readerIndex());
+        if ((opcode & NetworkConstants.COMPRESSED_FLAG) == 0) {
+            out.add(in.retain());
+            return;
+        }
+        in.skipBytes(1);
+        int payload = readVarInt(in);
+        if (payload < 0 || payload >= maxFrameBytes) {
+            throw new CorruptedFrameException("compressed frame announces " + payload + " bytes");
+        }
+        // one spare byte, so the inflater reaches the end of the stream instead of stopping at a full buffer
+        ByteBuf frame = ctx.alloc().buffer(2 + payload);
+        boolean ok = false;
+        try {
+            frame.writeByte(opcode & ~NetworkConstants.COMPRESSED_FLAG);
+            inflater.reset();
+            inflater.setInput(in.nioBuffer());
+            int inflated = inflater.inflate(frame.nioBuffer(1, payload + 1));
+            if (inflated != payload || !inflater.finished()) {
+                throw new CorruptedFrameException("compressed frame does not match its size " + payload);
+            }
+            frame.writerIndex(1 + payload);
+            ok = true;
+        } catch (DataFormatException e) {
+            throw new CorruptedFrameException(e);
+        } finally {
+            if (!ok) frame.release();
+        }
+        out.add(frame);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        inflater.end();
+    }
+}
@@ -0,0 +1,227 @@
+package com.zeal.game.network.codec;
+
+import com.zeal.game.network.ChatMessage;
+import com.zeal.game.network.HandshakeRejectedMessage;
+import com.zeal.game.network.HelloMessage;
+import com.zeal.game.network.JoinRoomMessage;
+import com.zeal.game.network.NetworkConstants;
+import com.zeal.game.network.NetworkMessage;
+import com.zeal.game.network.PlayerJoinedMessage;
+import com.zeal.game.network.PlayerInputMessage;
+import com.zeal.game.network.PlayerLeftMessage;
+import com.zeal.game.network.ResumeMessage;
+import com.zeal.game.network.RoomJoinedMessage;
+import com.zeal.game.network.SnapshotAckMessage;
+import com.zeal.game.network.WelcomeMessage;
+import com.zeal.game.network.WorldDeltaMessage;
+import com.zeal.game.network.WorldSnapshotMessage;
+import com.zeal.game.network.metrics.ServerMetrics;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.MessageToMessageDecoder;
+
+import java.util.List;
+
+import static com.zeal.game.network.codec.WireFormat.*;
+
+/**
+ * Decodes frames written by {@link GameMessageEncoder}. Sits behind the length-field frame
+ * decoder, so every call sees exactly one complete frame and no cumulation or length re-checks
+ * are needed. Handshake and roster frames also update the channel's {@link ProtocolSession} so
+ * later chat frames can be resolved.
+ * <p>
+ * Chat frames are the hot path: strings are decoded straight out of the frame buffer, the
+ * sender name comes from the session's interned table and the message object is pooled, so
+ * the content string is the only allocation per frame.
+ */
+public class GameMessageDecoder extends MessageToMessageDecoder<ByteBuf> {
+    private final ServerMetrics metrics;
+
+    public GameMessageDecoder() {
+        this(null);
+    }
+
+    /** @param metrics receives decode timings; null to skip instrumentation */
+    public GameMessageDecoder(ServerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+        if (metrics == null) {
+            decodeFrame(ctx, in, out);
+            return;
+        }
+        long start = System.nanoTime();
+        decodeFrame(ctx, in, out);
+        metrics.onDecoded(System.nanoTime() - start);
+    }
+
+    private static void decodeFrame(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+        ProtocolSession session = ProtocolSession.get(ctx.channel());
+        byte opcode = in.readByte();
+        switch (opcode) {
+            case NetworkConstants.CHAT_MESSAGE: {
+                int senderId = readVarInt(in);
+                long sequence = readVarLong(in);
+                long senderSequence = readVarLong(in);
+                String content = readString(in);
+                long timestamp = session.getRemoteEpoch() + readSignedVarLong(in);
+                ChatMessage chat = ChatMessage.newInstance(senderId, session.lookupName(senderId), content, timestamp);
+                chat.setSequence(sequence);
+                chat.setSenderSequence(senderSequence);
+                out.add(chat);
+                break;
+            }
+            case NetworkConstants.HELLO: {
+                int version = in.readUnsignedShort();
+                if (version != NetworkConstants.PROTOCOL_VERSION) {
+                    // the rest may be laid out differently; the handler turns the client away
+                    in.skipBytes(in.readableBytes());
+                    out.add(new HelloMessage(version, null, 0));
+                    break;
+                }
+                String name = readString(in);
+                session.setRemoteEpoch(in.readLong());
+                out.add(new HelloMessage(version, name, readFeatures(in)));
+                break;
+            }
+            case NetworkConstants.WELCOME: {
+                int playerId = readVarInt(in);
+                session.setRemoteEpoch(in.readLong());
+                long token = in.readLong();
+                out.add(new WelcomeMessage(playerId, token, readFeatures(in)));
+                break;
+            }
+            case NetworkConstants.PLAYER_JOINED: {
+                int playerId = readVarInt(in);
+                String name = readString(in);
+                session.putPlayerName(playerId, name);
+                out.add(new PlayerJoinedMessage(playerId, name));
+                break;
+            }
+            case NetworkConstants.PLAYER_LEFT: {
+                int playerId = readVarInt(in);
+                session.removePlayerName(playerId);
+                out.add(new PlayerLeftMessage(playerId));
+                break;
+            }
+            case NetworkConstants.PLAYER_INPUT: {
+                float moveX = in.readByte() / 127f;
+                float moveY = in.readByte() / 127f;
+                // inputs always belong to the connection's own player
+                out.add(new PlayerInputMessage(session.getPlayerId(), moveX, moveY));
+                break;
+            }
+            case NetworkConstants.WORLD_SNAPSHOT: {
+                long tick = readVarLong(in);
+                int count = readCount(in);
+                int[] ids = new int[count];
+                float[] xs = new float[count];
+                float[] ys = new float[count];
+                for (int i = 0; i < count; i++) {
+                    ids[i] = readVarInt(in);
+                    xs[i] = in.readFloat();
+                    ys[i] = in.readFloat();
+                }
+                out.add(new WorldSnapshotMessage(tick, ids, xs, ys));
+                break;
+            }
+            case NetworkConstants.WORLD_DELTA:
+                out.add(readDelta(in));
+                break;
+            case NetworkConstants.SNAPSHOT_ACK:
+                out.add(new SnapshotAckMessage(readVarLong(in)));
+                break;
+            case NetworkConstants.JOIN_ROOM:
+                out.add(new JoinRoomMessage(readString(in)));
+                break;
+            case NetworkConstants.RESUME: {
+                int version = in.readUnsignedShort();
+                if (version != NetworkConstants.PROTOCOL_VERSION) {
+                    in.skipBytes(in.readableBytes());
+                    out.add(new ResumeMessage(version, 0, 0, null, 0));
+                    break;
+                }
+                long token = in.readLong();
+                long lastSequence = readVarLong(in);
+                String name = readString(in);
+                session.setRemoteEpoch(in.readLong());
+                out.add(new ResumeMessage(version, token, lastSequence, name, readFeatures(in)));
+                break;
+            }
+            case NetworkConstants.ROOM_JOINED: {
+                String room = readString(in);
+                out.add(new RoomJoinedMessage(room, readVarLong(in)));
+                break;
+            }
+            case NetworkConstants.HANDSHAKE_REJECTED: {
+                int serverVersion = in.readUnsignedShort();
+                out.add(new HandshakeRejectedMessage(serverVersion, readString(in)));
+                break;
+            }
+            default:
+                throw new CorruptedFrameException("Unknown opcode " + opcode);
+        }
+        // trailing fields a newer peer may have appended are ignored; the frame is released for us
+    }
+
+    /**
+     * Decodes a frame that arrived over the datagram state channel. Only the messages that need
+     * no session state may travel there (player input, world deltas, snapshot acks); anything
+     * else returns null. Inputs are attributed to {@code playerId}, as on the TCP path.
+     */
+    public static NetworkMessage decodeState(ByteBuf frame, int playerId) {
+        switch (frame.readByte()) {
+            case NetworkConstants.PLAYER_INPUT: {
+                float moveX = frame.readByte() / 127f;
+                float moveY = frame.readByte() / 127f;
+                return new PlayerInputMessage(playerId, moveX, moveY);
+            }
+            case NetworkConstants.WORLD_DELTA:
+                return readDelta(frame);
+            case NetworkConstants.SNAPSHOT_ACK:
+                return new SnapshotAckMessage(readVarLong(frame));
+            default:
+                return null;
+        }
+    }
+
+    private static WorldDeltaMessage readDelta(ByteBuf in) {
+        long tick = readVarLong(in);
+        long baselineTick = readVarLong(in);
+        int changed = readCount(in);
+        int[] changedIds = new int[changed];
+        byte[] masks = new byte[changed];
+        float[] xs = new float[changed];
+        float[] ys = new float[changed];
+        for (int i = 0; i < changed; i++) {
+            changedIds[i] = readVarInt(in);
+            int mask = in.readByte();
+            masks[i] = (byte) mask;
+            if ((mask & WorldDeltaMessage.FIELD_X) != 0) xs[i] = in.readFloat();
+            if ((mask & WorldDeltaMessage.FIELD_Y) != 0) ys[i] = in.readFloat();
+        }
+        int removed = readCount(in);
+        int[] removedIds = new int[removed];
+        for (int i = 0; i < removed; i++) {
+            removedIds[i] = readVarInt(in);
+        }
+        return new WorldDeltaMessage(tick, baselineTick, changedIds, masks, xs, ys, removedIds);
+    }
+
+    /** Feature flags of a handshake frame; peers that predate them send none. */
+    private static int readFeatures(ByteBuf in) {
+        return in.isReadable() ? in.readUnsignedByte() : 0;
+    }
+
+    /** Element count that cannot exceed the bytes left in the frame (every element takes at least one). */
+    private static int readCount(ByteBuf in) {
+        int count = readVarInt(in);
+        if (count < 0 || count > in.readableBytes()) {
+            throw new CorruptedFrameException("element count " + count + " exceeds frame");
+        }
+        return count;
+    }
+}
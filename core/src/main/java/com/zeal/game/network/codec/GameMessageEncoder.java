@@ -0,0 +1,211 @@
+package com.zeal.game.network.codec;
+
+import com.zeal.game.network.ChatMessage;
+import com.zeal.game.network.HandshakeRejectedMessage;
+import com.zeal.game.network.HelloMessage;
+import com.zeal.game.network.JoinRoomMessage;
+import com.zeal.game.network.NetworkConstants;
+import com.zeal.game.network.NetworkMessage;
+import com.zeal.game.network.PlayerJoinedMessage;
+import com.zeal.game.network.PlayerInputMessage;
+import com.zeal.game.network.PlayerLeftMessage;
+import com.zeal.game.network.ResumeMessage;
+import com.zeal.game.network.RoomJoinedMessage;
+import com.zeal.game.network.SnapshotAckMessage;
+import com.zeal.game.network.WelcomeMessage;
+import com.zeal.game.network.WorldDeltaMessage;
+import com.zeal.game.network.WorldSnapshotMessage;
+import com.zeal.game.network.metrics.ServerMetrics;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.EncoderException;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+import static com.zeal.game.network.codec.WireFormat.*;
+
+/**
+ * Encodes {@link NetworkMessage}s as {@code [opcode:byte][payload]}. Payloads by opcode:
+ * <pre>
+ * CHAT_MESSAGE   [senderId:varint][sequence:varlong][senderSequence:varlong][content:string]
+ *                [timestamp - epoch:zigzag varlong]
+ * HELLO          [protocolVersion:short][name:string][epoch:long][features:byte]
+ * WELCOME        [playerId:varint][epoch:long][sessionToken:long][features:byte]
+ * PLAYER_JOINED  [playerId:varint][name:string]
+ * PLAYER_LEFT    [playerId:varint]
+ * PLAYER_INPUT   [moveX:byte][moveY:byte]            (axis * 127)
+ * WORLD_SNAPSHOT [tick:varlong][count:varint]{[entityId:varint][x:float][y:float]}
+ * WORLD_DELTA    [tick:varlong][baselineTick:varlong][changed:varint]{[entityId:varint][mask:byte][x:float]?[y:float]?}
+ *                [removed:varint]{[entityId:varint]}
+ * SNAPSHOT_ACK   [tick:varlong]
+ * JOIN_ROOM      [room:string]
+ * RESUME         [protocolVersion:short][sessionToken:long][lastSequence:varlong][name:string][epoch:long][features:byte]
+ * ROOM_JOINED    [room:string][sequence:varlong]
+ * HANDSHAKE_REJECTED [serverVersion:short][reason:string]
+ * </pre>
+ * Strings are varint-length-prefixed UTF-8. The epoch is the sender's {@link ProtocolSession}
+ * local epoch, announced once in HELLO/WELCOME. The protocol version leads the handshake frames
+ * so a server can still read it from a client whose other fields it does not understand. A frame
+ * whose opcode has {@link NetworkConstants#COMPRESSED_FLAG} set was compressed by
+ * {@link FrameCompressor}.
+ */
+public class GameMessageEncoder extends MessageToByteEncoder<NetworkMessage> {
+    private final ServerMetrics metrics;
+
+    public GameMessageEncoder() {
+        this(null);
+    }
+
+    /** @param metrics receives encode timings and outbound message counts; null to skip instrumentation */
+    public GameMessageEncoder(ServerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, NetworkMessage msg, ByteBuf out) throws Exception {
+        long epoch = ProtocolSession.get(ctx.channel()).getLocalEpoch();
+        if (metrics == null) {
+            writeMessage(msg, out, epoch);
+            return;
+        }
+        long start = System.nanoTime();
+        writeMessage(msg, out, epoch);
+        metrics.onEncoded(System.nanoTime() - start);
+        metrics.onMessagesOut(1);
+    }
+
+    /**
+     * Encode a message once into a fresh buffer from the given allocator. Used by the server
+     * broadcast path so the same frame body can be shared by every channel.
+     * The caller owns the returned buffer and must release it.
+     */
+    public static ByteBuf encode(ByteBufAllocator alloc, NetworkMessage msg, long epoch) {
+        ByteBuf out = alloc.buffer(sizeHint(msg));
+        try {
+            writeMessage(msg, out, epoch);
+            return out;
+        } catch (RuntimeException e) {
+            out.release();
+            throw e;
+        }
+    }
+
+    static void writeMessage(NetworkMessage msg, ByteBuf out, long epoch) {
+        out.writeByte(msg.getOpcode());
+        switch (msg.getOpcode()) {
+            case NetworkConstants.CHAT_MESSAGE: {
+                ChatMessage chat = (ChatMessage) msg;
+                writeVarInt(out, chat.getSenderId());
+                writeVarLong(out, chat.getSequence());
+                writeVarLong(out, chat.getSenderSequence());
+                writeString(out, chat.getContent());
+                writeSignedVarLong(out, chat.getTimestamp() - epoch);
+                break;
+            }
+            case NetworkConstants.HELLO: {
+                HelloMessage hello = (HelloMessage) msg;
+                out.writeShort(hello.getProtocolVersion());
+                writeString(out, hello.getName());
+                out.writeLong(epoch);
+                out.writeByte(hello.getFeatures());
+                break;
+            }
+            case NetworkConstants.WELCOME: {
+                WelcomeMessage welcome = (WelcomeMessage) msg;
+                writeVarInt(out, welcome.getPlayerId());
+                out.writeLong(epoch);
+                out.writeLong(welcome.getSessionToken());
+                out.writeByte(welcome.getFeatures());
+                break;
+            }
+            case NetworkConstants.PLAYER_JOINED: {
+                PlayerJoinedMessage joined = (PlayerJoinedMessage) msg;
+                writeVarInt(out, joined.getPlayerId());
+                writeString(out, joined.getName());
+                break;
+            }
+            case NetworkConstants.PLAYER_LEFT:
+                writeVarInt(out, ((PlayerLeftMessage) msg).getPlayerId());
+                break;
+            case NetworkConstants.PLAYER_INPUT: {
+                PlayerInputMessage input = (PlayerInputMessage) msg;
+                out.writeByte(Math.round(input.getMoveX() * 127f));
+                out.writeByte(Math.round(input.getMoveY() * 127f));
+                break;
+            }
+            case NetworkConstants.WORLD_SNAPSHOT: {
+                WorldSnapshotMessage snapshot = (WorldSnapshotMessage) msg;
+                writeVarLong(out, snapshot.getTick());
+                writeVarInt(out, snapshot.getEntityCount());
+                for (int i = 0; i < snapshot.getEntityCount(); i++) {
+                    writeVarInt(out, snapshot.getEntityId(i));
+                    out.writeFloat(snapshot.getX(i));
+                    out.writeFloat(snapshot.getY(i));
+                }
+                break;
+            }
+            case NetworkConstants.WORLD_DELTA: {
+                WorldDeltaMessage delta = (WorldDeltaMessage) msg;
+                writeVarLong(out, delta.getTick());
+                writeVarLong(out, delta.getBaselineTick());
+                writeVarInt(out, delta.getChangedCount());
+                for (int i = 0; i < delta.getChangedCount(); i++) {
+                    int mask = delta.getFieldMask(i);
+                    writeVarInt(out, delta.getChangedId(i));
+                    out.writeByte(mask);
+                    if ((mask & WorldDeltaMessage.FIELD_X) != 0) out.writeFloat(delta.getX(i));
+                    if ((mask & WorldDeltaMessage.FIELD_Y) != 0) out.writeFloat(delta.getY(i));
+                }
+                writeVarInt(out, delta.getRemovedCount());
+                for (int i = 0; i < delta.getRemovedCount(); i++) {
+                    writeVarInt(out, delta.getRemovedId(i));
+                }
+                break;
+            }
+            case NetworkConstants.SNAPSHOT_ACK:
+                writeVarLong(out, ((SnapshotAckMessage) msg).getTick());
+                break;
+            case NetworkConstants.JOIN_ROOM:
+                writeString(out, ((JoinRoomMessage) msg).getRoom());
+                break;
+            case NetworkConstants.RESUME: {
+                ResumeMessage resume = (ResumeMessage) msg;
+                out.writeShort(resume.getProtocolVersion());
+                out.writeLong(resume.getSessionToken());
+                writeVarLong(out, resume.getLastSequence());
+                writeString(out, resume.getName());
+                out.writeLong(epoch);
+                out.writeByte(resume.getFeatures());
+                break;
+            }
+            case NetworkConstants.ROOM_JOINED: {
+                RoomJoinedMessage joined = (RoomJoinedMessage) msg;
+                writeString(out, joined.getRoom());
+                writeVarLong(out, joined.getSequence());
+                break;
+            }
+            case NetworkConstants.HANDSHAKE_REJECTED: {
+                HandshakeRejectedMessage rejected = (HandshakeRejectedMessage) msg;
+                out.writeShort(rejected.getServerVersion());
+                writeString(out, rejected.getReason());
+                break;
+            }
+            default:
+                throw new EncoderException("Unknown opcode " + msg.getOpcode());
+        }
+    }
+
+    private static int sizeHint(NetworkMessage msg) {
+        if (msg instanceof ChatMessage) {
+            return 1 + 5 + 10 + 10 + maxStringBytes(((ChatMessage) msg).getContent()) + 10;
+        }
+        if (msg instanceof WorldSnapshotMessage) {
+            return 1 + 10 + 5 + ((WorldSnapshotMessage) msg).getEntityCount() * (5 + 8);
+        }
+        if (msg instanceof WorldDeltaMessage) {
+            WorldDeltaMessage delta = (WorldDeltaMessage) msg;
+            return 1 + 20 + 10 + delta.getChangedCount() * (5 + 1 + 8) + delta.getRemovedCount() * 5;
+        }
+        return 64;
+    }
+}
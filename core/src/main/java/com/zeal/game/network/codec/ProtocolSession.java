@@ -0,0 +1,99 @@
+package com.zeal.game.network.codec;
+
+import com.zeal.game.network.NetworkConstants;
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-connection protocol state, attached to the channel. Holds the timestamp epochs both ends
+ * announced at handshake (timestamps travel as deltas against them) and the id -> name table
+ * that lets frames carry a player id instead of the name.
+ */
+public final class ProtocolSession {
+    public static final AttributeKey<ProtocolSession> KEY = AttributeKey.valueOf("zeal.protocolSession");
+
+    private final long localEpoch;
+    private long remoteEpoch;
+    // the player this connection belongs to (the remote player on the server, ourselves on the client)
+    private volatile int playerId = NetworkConstants.SERVER_PLAYER_ID;
+    private volatile String playerName;
+    // optional features agreed at handshake (NetworkConstants.FEATURE_*)
+    private volatile int features;
+    // only touched from the channel's event loop (decoder)
+    private final Map<Integer, String> playerNames = new HashMap<>();
+
+    private ProtocolSession(long localEpoch) {
+        this.localEpoch = localEpoch;
+    }
+
+    public static ProtocolSession install(Channel channel, long localEpoch) {
+        ProtocolSession session = new ProtocolSession(localEpoch);
+        channel.attr(KEY).set(session);
+        return session;
+    }
+
+    public static ProtocolSession get(Channel channel) {
+        return channel.attr(KEY).get();
+    }
+
+    /** Epoch our outgoing timestamps are relative to; sent to the peer at handshake. */
+    public long getLocalEpoch() {
+        return localEpoch;
+    }
+
+    public long getRemoteEpoch() {
+        return remoteEpoch;
+    }
+
+    void setRemoteEpoch(long remoteEpoch) {
+        this.remoteEpoch = remoteEpoch;
+    }
+
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public boolean isRegistered() {
+        return playerName != null;
+    }
+
+    public void setPlayer(int playerId, String playerName) {
+        this.playerId = playerId;
+        this.playerName = playerName;
+    }
+
+    public int getFeatures() {
+        return features;
+    }
+
+    public void setFeatures(int features) {
+        this.features = features;
+    }
+
+    public boolean hasFeature(int feature) {
+        return (features & feature) != 0;
+    }
+
+    void putPlayerName(int id, String name) {
+        playerNames.put(id, name);
+    }
+
+    void removePlayerName(int id) {
+        playerNames.remove(id);
+    }
+
+    /** Resolves a sender id from the wire back to a display name. */
+    public String lookupName(int id) {
+        if (id == NetworkConstants.SERVER_PLAYER_ID) return NetworkConstants.SERVER_NAME;
+        if (id == playerId && playerName != null) return playerName;
+        String name = playerNames.get(id);
+        return name != null ? name : "Player#" + id;
+    }
+}
@@ -0,0 +1,99 @@
+package com.zeal.game.network.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.handler.codec.CorruptedFrameException;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Primitive field encodings shared by the game codecs: LEB128 varints, zigzag for signed
+ * values and varint-length-prefixed UTF-8 strings.
+ */
+public final class WireFormat {
+    private WireFormat() {}
+
+    public static void writeVarInt(ByteBuf out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    public static int readVarInt(ByteBuf in) {
+        int result = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (!in.isReadable()) throw new CorruptedFrameException("truncated varint");
+            byte b = in.readByte();
+            result |= (b & 0x7F) << shift;
+            if (b >= 0) return result;
+        }
+        throw new CorruptedFrameException("varint too long");
+    }
+
+    public static void writeVarLong(ByteBuf out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /** Bytes {@link #writeVarInt} uses for {@code value}. */
+    public static int varIntSize(int value) {
+        return value < 0 ? 5 : (31 - Integer.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    /** Bytes {@link #writeVarLong} uses for {@code value}. */
+    public static int varLongSize(long value) {
+        return value < 0 ? 10 : (63 - Long.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    public static long readVarLong(ByteBuf in) {
+        long result = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            if (!in.isReadable()) throw new CorruptedFrameException("truncated varlong");
+            byte b = in.readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return result;
+        }
+        throw new CorruptedFrameException("varlong too long");
+    }
+
+    /** Signed value as zigzag varlong so small negative deltas stay small on the wire. */
+    public static void writeSignedVarLong(ByteBuf out, long value) {
+        writeVarLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    public static long readSignedVarLong(ByteBuf in) {
+        long raw = readVarLong(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    /** Writes {@code [len:varint][utf8]}; null is written as the empty string. */
+    public static void writeString(ByteBuf out, CharSequence value) {
+        if (value == null || value.length() == 0) {
+            out.writeByte(0);
+            return;
+        }
+        writeVarInt(out, ByteBufUtil.utf8Bytes(value));
+        ByteBufUtil.writeUtf8(out, value);
+    }
+
+    public static String readString(ByteBuf in) {
+        int length = readVarInt(in);
+        if (length < 0 || length > in.readableBytes()) {
+            throw new CorruptedFrameException("string length " + length + " exceeds frame");
+        }
+        if (length == 0) return "";
+        String value = in.toString(in.readerIndex(), length, StandardCharsets.UTF_8);
+        in.skipBytes(length);
+        return value;
+    }
+
+    /** Upper bound of the bytes {@link #writeString} needs, for sizing buffers up front. */
+    public static int maxStringBytes(CharSequence value) {
+        return value == null ? 1 : 5 + ByteBufUtil.utf8MaxBytes(value);
+    }
+}
@@ -0,0 +1,101 @@
+package com.zeal.game.network.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Hands log records to a single background thread that runs the {@code java.util.logging}
+ * handlers, so formatting and console/file I/O never happen on an event loop.
+ * <p>
+ * Records go into a bounded ring; when it is full new records are dropped (never blocking the
+ * caller) and the number of drops is reported once the writer catches up. Whatever is still
+ * queued at JVM shutdown is written out by a shutdown hook.
+ */
+final class AsyncLogDispatcher {
+    static final int CAPACITY = Integer.getInteger("zeal.network.log.queue", 8192);
+
+    private static final AsyncLogDispatcher INSTANCE = new AsyncLogDispatcher();
+
+    private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(CAPACITY);
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+
+    private AsyncLogDispatcher() {
+        writer = new Thread(this::run, "network-log");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::drain, "network-log-flush"));
+    }
+
+    static AsyncLogDispatcher get() {
+        return INSTANCE;
+    }
+
+    /** Queue a record for {@code logger}; returns false if the ring was full and it was dropped. */
+    boolean submit(Logger logger, LogRecord record) {
+        if (queue.offer(new Entry(logger, record))) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    /** Records dropped because the ring was full, since startup. */
+    long getDropped() {
+        return dropped.get();
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>(256);
+        long reportedDrops = 0;
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, 255);
+            for (Entry entry : batch) {
+                publish(entry);
+            }
+            batch.clear();
+            long drops = dropped.get();
+            if (drops != reportedDrops) {
+                Logger.getLogger(AsyncLogDispatcher.class.getName()).log(Level.WARNING,
+                        (drops - reportedDrops) + " log records dropped (queue full)");
+                reportedDrops = drops;
+            }
+        }
+    }
+
+    private void drain() {
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            publish(entry);
+        }
+    }
+
+    private static void publish(Entry entry) {
+        try {
+            entry.logger.log(entry.record);
+        } catch (RuntimeException e) {
+            // a broken handler must not kill the writer thread
+        }
+    }
+
+    private static final class Entry {
+        final Logger logger;
+        final LogRecord record;
+
+        Entry(Logger logger, LogRecord record) {
+            this.logger = logger;
+            this.record = record;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.zeal.game.network.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Logger for the network package, safe to call from Netty event loops.
+ * <p>
+ * Every call is guarded by the level check before a message is built, the supplier overloads
+ * defer string building until then, and the record is written by {@link AsyncLogDispatcher} on
+ * a background thread. {@link #sampled} additionally caps per-message logs (one per frame, say)
+ * at {@value #DEFAULT_SAMPLES_PER_SECOND} records per second per logger by default; the rest are
+ * counted and the count is appended to the next record that gets through.
+ */
+public final class NetworkLog {
+    public static final int DEFAULT_SAMPLES_PER_SECOND = 20;
+    private static final int SAMPLES_PER_SECOND =
+            Integer.getInteger("zeal.network.log.samplesPerSecond", DEFAULT_SAMPLES_PER_SECOND);
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Logger logger;
+    private final String sourceClass;
+    // sampling window shared by all sampled() calls on this logger
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger windowCount = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    private NetworkLog(Class<?> type) {
+        this.logger = Logger.getLogger(type.getName());
+        this.sourceClass = type.getName();
+    }
+
+    public static NetworkLog get(Class<?> type) {
+        return new NetworkLog(type);
+    }
+
+    public boolean isLoggable(Level level) {
+        return logger.isLoggable(level);
+    }
+
+    public void severe(String message) {
+        log(Level.SEVERE, message, null);
+    }
+
+    public void warning(String message) {
+        log(Level.WARNING, message, null);
+    }
+
+    public void warning(String message, Throwable thrown) {
+        log(Level.WARNING, message, thrown);
+    }
+
+    public void info(String message) {
+        log(Level.INFO, message, null);
+    }
+
+    public void info(Supplier<String> message) {
+        if (logger.isLoggable(Level.INFO)) log(Level.INFO, message.get(), null);
+    }
+
+    public void fine(String message) {
+        log(Level.FINE, message, null);
+    }
+
+    public void fine(Supplier<String> message) {
+        if (logger.isLoggable(Level.FINE)) log(Level.FINE, message.get(), null);
+    }
+
+    /**
+     * Rate-limited log for high-frequency events. The supplier runs on the calling thread (so it
+     * may read pooled objects that are recycled right after), but only if the record is kept.
+     */
+    public void sampled(Level level, Supplier<String> message) {
+        if (!logger.isLoggable(level)) return;
+        if (!tryAcquireSample()) {
+            suppressed.incrementAndGet();
+            return;
+        }
+        long skipped = suppressed.getAndSet(0);
+        String text = message.get();
+        log(level, skipped > 0 ? text + " (" + skipped + " similar suppressed)" : text, null);
+    }
+
+    private boolean tryAcquireSample() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            windowCount.set(0);
+        }
+        return windowCount.incrementAndGet() <= SAMPLES_PER_SECOND;
+    }
+
+    private void log(Level level, String message, Throwable thrown) {
+        if (!logger.isLoggable(level)) return;
+        LogRecord record = new LogRecord(level, message);
+        record.setLoggerName(logger.getName());
+        // set explicitly: inferring the caller from the stack would happen on the writer thread
+        record.setSourceClassName(sourceClass);
+        record.setSourceMethodName(null);
+        record.setThrown(thrown);
+        AsyncLogDispatcher.get().submit(logger, record);
+    }
+
+    /** Records dropped server-wide because the background writer fell behind. */
+    public static long getDroppedRecords() {
+        return AsyncLogDispatcher.get().getDropped();
+    }
+}
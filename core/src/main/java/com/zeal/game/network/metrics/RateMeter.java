@@ -0,0 +1,43 @@
+package com.zeal.game.network.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Striped counter that can also report its recent rate. Writers only touch a {@link LongAdder};
+ * the rate is derived on read from the change since the previous sample, at most once a second.
+ */
+public class RateMeter {
+    private static final long MIN_SAMPLE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LongAdder total = new LongAdder();
+    // read side only, guarded by this
+    private long lastTotal;
+    private long lastSampleNanos = System.nanoTime();
+    private double rate;
+
+    public void increment() {
+        total.increment();
+    }
+
+    public void add(long amount) {
+        total.add(amount);
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    /** Average per second since the previous sample (sampling at most once a second). */
+    public synchronized double getRatePerSecond() {
+        long now = System.nanoTime();
+        long elapsed = now - lastSampleNanos;
+        if (elapsed >= MIN_SAMPLE_NANOS) {
+            long current = total.sum();
+            rate = (current - lastTotal) * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+            lastTotal = current;
+            lastSampleNanos = now;
+        }
+        return rate;
+    }
+}
@@ -0,0 +1,84 @@
+package com.zeal.game.network.metrics;
+
+/**
+ * Hot-path counters and latency histograms for the server. Everything here is lock-free for
+ * writers (striped adders and atomic bucket arrays), so recording costs a few uncontended
+ * atomic adds. Gauges that are cheaper to compute on demand, such as connected clients or
+ * event-loop queue depths, are read by the server's monitor instead of being tracked here.
+ */
+public class ServerMetrics {
+    private final RateMeter messagesIn = new RateMeter();
+    private final RateMeter messagesOut = new RateMeter();
+    private final RateMeter bytesIn = new RateMeter();
+    private final RateMeter bytesOut = new RateMeter();
+    private final RateMeter throttled = new RateMeter();
+    private final LatencyHistogram decodeNanos = new LatencyHistogram();
+    private final LatencyHistogram encodeNanos = new LatencyHistogram();
+    private final LatencyHistogram fanOutNanos = new LatencyHistogram();
+
+    /** One inbound frame decoded in {@code nanos}. */
+    public void onDecoded(long nanos) {
+        messagesIn.increment();
+        decodeNanos.record(nanos);
+    }
+
+    /** One message encoded in {@code nanos}, whether for one channel or a whole broadcast. */
+    public void onEncoded(long nanos) {
+        encodeNanos.record(nanos);
+    }
+
+    /** {@code count} messages queued for delivery (one per recipient for broadcasts). */
+    public void onMessagesOut(int count) {
+        messagesOut.add(count);
+    }
+
+    /** Time from a broadcast being requested until it was handed to every recipient channel. */
+    public void onFanOut(long nanos) {
+        fanOutNanos.record(nanos);
+    }
+
+    public void onBytesIn(long bytes) {
+        bytesIn.add(bytes);
+    }
+
+    public void onBytesOut(long bytes) {
+        bytesOut.add(bytes);
+    }
+
+    /** A client ran out of its inbound budget and reading from it was paused. */
+    public void onThrottled() {
+        throttled.increment();
+    }
+
+    public RateMeter getMessagesIn() {
+        return messagesIn;
+    }
+
+    public RateMeter getMessagesOut() {
+        return messagesOut;
+    }
+
+    public RateMeter getBytesIn() {
+        return bytesIn;
+    }
+
+    public RateMeter getBytesOut() {
+        return bytesOut;
+    }
+
+    public RateMeter getThrottled() {
+        return throttled;
+    }
+
+    public LatencyHistogram getDecodeNanos() {
+        return decodeNanos;
+    }
+
+    public LatencyHistogram getEncodeNanos() {
+        return encodeNanos;
+    }
+
+    public LatencyHistogram getFanOutNanos() {
+        return fanOutNanos;
+    }
+}
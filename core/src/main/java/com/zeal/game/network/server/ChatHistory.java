@@ -0,0 +1,73 @@
+package com.zeal.game.network.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+
+/**
+ * Bounded ring of a room's most recent encoded chat frames, keyed by sequence number, so a
+ * resuming client can be sent exactly what it missed. Frames are retained while in the ring and
+ * released on eviction. Not thread-safe; {@link Room} only touches it on its event loop.
+ */
+final class ChatHistory {
+    private final long[] sequences;
+    private final ByteBuf[] frames;
+    private int head;   // index of the oldest entry
+    private int size;
+    private long lastSequence;
+
+    ChatHistory(int capacity) {
+        sequences = new long[Math.max(0, capacity)];
+        frames = new ByteBuf[Math.max(0, capacity)];
+    }
+
+    /** Sequence for the next line; sequences start at 1 so 0 can mean "none". */
+    long nextSequence() {
+        return ++lastSequence;
+    }
+
+    long getLastSequence() {
+        return lastSequence;
+    }
+
+    /** Stores a frame under {@code sequence}, evicting the oldest when full. Retains the frame. */
+    void add(long sequence, ByteBuf frame) {
+        if (frames.length == 0) return;
+        int index;
+        if (size == frames.length) {
+            index = head;
+            frames[index].release();
+            head = (head + 1) % frames.length;
+        } else {
+            index = (head + size) % frames.length;
+            size++;
+        }
+        sequences[index] = sequence;
+        frames[index] = frame.retain();
+    }
+
+    /**
+     * Writes (without flushing) every stored frame with {@code after < sequence <= upTo} to the
+     * channel. Returns how many were written; lines that were already evicted are simply missing.
+     */
+    int replay(long after, long upTo, Channel channel) {
+        int written = 0;
+        for (int i = 0; i < size; i++) {
+            int index = (head + i) % frames.length;
+            long sequence = sequences[index];
+            if (sequence > after && sequence <= upTo) {
+                channel.write(frames[index].retainedDuplicate(), channel.voidPromise());
+                written++;
+            }
+        }
+        return written;
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            frames[(head + i) % frames.length].release();
+            frames[(head + i) % frames.length] = null;
+        }
+        head = 0;
+        size = 0;
+    }
+}
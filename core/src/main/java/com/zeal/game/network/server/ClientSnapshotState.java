@@ -0,0 +1,47 @@
+package com.zeal.game.network.server;
+
+import com.zeal.game.network.SnapshotDelta;
+import com.zeal.game.network.SnapshotHistory;
+import com.zeal.game.network.WorldDeltaMessage;
+import com.zeal.game.network.WorldSnapshotMessage;
+import io.netty.util.AttributeKey;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client snapshot bookkeeping: the states recently sent to this client and the newest one
+ * it acknowledged. Each tick the client gets a delta against its acknowledged state, or a full
+ * state when that baseline has already dropped out of the ring.
+ */
+public class ClientSnapshotState {
+    public static final AttributeKey<ClientSnapshotState> KEY = AttributeKey.valueOf("zeal.clientSnapshots");
+
+    // only touched by the simulation thread
+    private final SnapshotHistory sent = new SnapshotHistory();
+    // written by the channel's event loop when an ack arrives
+    private final AtomicLong ackedTick = new AtomicLong(WorldDeltaMessage.NO_BASELINE);
+
+    /**
+     * Delta to send for {@code state}, or null when the client's baseline is already identical.
+     * Snapshots are immutable, so the ring just keeps references shared by all clients.
+     */
+    WorldDeltaMessage nextDelta(WorldSnapshotMessage state) {
+        WorldSnapshotMessage baseline = sent.get(ackedTick.get());
+        WorldDeltaMessage delta = SnapshotDelta.diff(baseline, state);
+        if (baseline != null && delta.getChangedCount() == 0 && delta.getRemovedCount() == 0) {
+            return null;
+        }
+        sent.put(state);
+        return delta;
+    }
+
+    void acknowledge(long tick) {
+        // acks can only move forward; a stale ack must not pull the baseline back. Acks arrive on
+        // the TCP loop and the datagram loop, so a plain check-then-set could lose that race.
+        ackedTick.accumulateAndGet(tick, Math::max);
+    }
+
+    public long getAckedTick() {
+        return ackedTick.get();
+    }
+}
@@ -0,0 +1,127 @@
+package com.zeal.game.network.server;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.concurrent.Future;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces flushes so a burst of writes to one channel ends up in a single socket write.
+ * <p>
+ * While a read is in progress, flushes are held until {@code channelReadComplete}. Outside of a
+ * read (e.g. broadcasts originating from another channel) the flush is deferred to the end of the
+ * event-loop tick, or up to {@code maxDelayMicros} if configured. Either way, at most
+ * {@code maxPendingFlushes} flushes are held before one is forced through.
+ * Must be the first handler in the pipeline so it sees every flush.
+ */
+public class FlushBatchingHandler extends ChannelDuplexHandler {
+    private final int maxPendingFlushes;
+    private final long maxDelayNanos;
+    private final Runnable flushTask = this::scheduledFlush;
+
+    private ChannelHandlerContext ctx;
+    private int pendingFlushes;
+    private boolean readInProgress;
+    private Future<?> scheduledFlush;
+
+    public FlushBatchingHandler(int maxPendingFlushes, long maxDelayMicros) {
+        if (maxPendingFlushes <= 0) {
+            throw new IllegalArgumentException("maxPendingFlushes must be positive: " + maxPendingFlushes);
+        }
+        this.maxPendingFlushes = maxPendingFlushes;
+        this.maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(maxDelayMicros);
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        this.ctx = ctx;
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) {
+        if (++pendingFlushes >= maxPendingFlushes) {
+            flushNow(ctx);
+        } else if (!readInProgress) {
+            // channelReadComplete takes care of the flush when we are inside a read
+            scheduleFlush(ctx);
+        }
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        readInProgress = true;
+        ctx.fireChannelRead(msg);
+    }
+
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) {
+        readInProgress = false;
+        flushIfNeeded(ctx);
+        ctx.fireChannelReadComplete();
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (!ctx.channel().isWritable()) {
+            // push out what we hold so the outbound buffer can drain
+            flushIfNeeded(ctx);
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        flushIfNeeded(ctx);
+        ctx.fireExceptionCaught(cause);
+    }
+
+    @Override
+    public void disconnect(ChannelHandlerContext ctx, ChannelPromise promise) {
+        flushIfNeeded(ctx);
+        ctx.disconnect(promise);
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise) {
+        flushIfNeeded(ctx);
+        ctx.close(promise);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        flushIfNeeded(ctx);
+    }
+
+    private void scheduleFlush(ChannelHandlerContext ctx) {
+        if (scheduledFlush != null) return;
+        if (maxDelayNanos > 0) {
+            scheduledFlush = ctx.executor().schedule(flushTask, maxDelayNanos, TimeUnit.NANOSECONDS);
+        } else {
+            scheduledFlush = ctx.executor().submit(flushTask);
+        }
+    }
+
+    private void scheduledFlush() {
+        scheduledFlush = null;
+        if (!readInProgress) {
+            flushIfNeeded(ctx);
+        }
+    }
+
+    private void flushIfNeeded(ChannelHandlerContext ctx) {
+        if (pendingFlushes > 0) {
+            flushNow(ctx);
+        }
+    }
+
+    private void flushNow(ChannelHandlerContext ctx) {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        pendingFlushes = 0;
+        ctx.flush();
+    }
+}
@@ -1,83 +1,435 @@
 package com.zeal.game.network.server;
 
+import io.netty.bootstrap.Bootstrap;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.*;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.ChannelGroupFuture;
+import io.netty.channel.group.ChannelGroupFutureListener;
+import io.netty.channel.group.ChannelMatcher;
+import io.netty.channel.group.ChannelMatchers;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.channel.epoll.EpollChannelOption;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 // Using custom codec - no deprecated Netty object codec imports required
 import com.zeal.game.network.NetworkConstants;
+import com.zeal.game.network.TransportType;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.handler.codec.LengthFieldPrepender;
 import com.zeal.game.network.ChatMessage;
+import com.zeal.game.network.HandshakeRejectedMessage;
+import com.zeal.game.network.NetworkMessage;
+import com.zeal.game.network.WelcomeMessage;
+import com.zeal.game.network.codec.FrameCompressor;
+import com.zeal.game.network.codec.FrameDecompressor;
+import com.zeal.game.network.codec.GameMessageDecoder;
+import com.zeal.game.network.codec.GameMessageEncoder;
+import com.zeal.game.network.codec.ProtocolSession;
+import com.zeal.game.network.PlayerInputMessage;
+import com.zeal.game.network.metrics.ServerMetrics;
+import com.zeal.game.network.server.simulation.SimulationLoop;
+import com.zeal.game.network.logging.NetworkLog;
+import com.zeal.game.network.udp.StatePacker;
+import io.netty.util.NettyRuntime;
+import io.netty.util.concurrent.GlobalEventExecutor;
 
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.logging.Logger;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class GameServer {
-    private static final Logger logger = Logger.getLogger(GameServer.class.getName());
+    private static final NetworkLog logger = NetworkLog.get(GameServer.class);
+    // state goes back to TCP for a client whose datagrams stopped arriving for this long
+    private static final long UDP_PEER_TIMEOUT_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(NetworkConstants.UDP_PEER_TIMEOUT_MILLIS);
+    private static final ChannelMatcher ACCEPTS_COMPRESSION = GameServer::acceptsCompression;
     private final int port;
-    private Channel serverChannel;
+    private final ServerConfig config;
+    // one entry per acceptor; several only when SO_REUSEPORT is in use
+    private final List<Channel> serverChannels = new ArrayList<>();
+    private int boundPort;
+    // UDP socket for unreliable state; null when disabled
+    private volatile Channel datagramChannel;
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
     private final ConcurrentHashMap<Channel, String> connectedClients = new ConcurrentHashMap<>();
+    // Broadcast targets; closed channels are removed from the group automatically.
+    private final ChannelGroup clientGroup = new DefaultChannelGroup("clients", GlobalEventExecutor.INSTANCE);
+    // Wire timestamps are sent relative to this; shared by all channels so broadcasts encode once.
+    private final long epochMillis = System.currentTimeMillis();
+    private SimulationLoop simulation;
+    private RoomManager rooms;
+    private final SessionRegistry sessions;
+    // player id -> channel, for delivering to the players an interest query returns
+    private final ConcurrentHashMap<Integer, Channel> channelsByPlayerId = new ConcurrentHashMap<>();
+    // clients with state queued in their packer since the last flushDatagrams(); simulation thread only
+    private final List<UdpPeer> pendingPeers = new ArrayList<>();
+    private final SlowConsumerStats slowConsumerStats = new SlowConsumerStats();
+    private final ServerMetrics metrics = new ServerMetrics();
+    private final TrafficMetricsHandler trafficMetrics = new TrafficMetricsHandler(metrics);
+    private GameServerMonitor monitor;
+    private final AtomicInteger nextPlayerId = new AtomicInteger(NetworkConstants.SERVER_PLAYER_ID + 1);
 
     public GameServer(int port) {
+        this(port, new ServerConfig());
+    }
+
+    public GameServer(int port, ServerConfig config) {
         this.port = port;
+        this.config = config;
+        this.sessions = new SessionRegistry(config.getSessionResumeMillis());
     }
 
     public void start() {
-        bossGroup = new NioEventLoopGroup(1);
-        workerGroup = new NioEventLoopGroup();
+        TransportType transport = config.getTransport();
+        // Only a reuseport-capable transport can spread accepts over several boss threads.
+        int acceptors = 1;
+        if (transport.supportsReusePort()) {
+            acceptors = config.getAcceptThreads() > 0 ? config.getAcceptThreads()
+                    : Math.min(ServerConfig.MAX_DEFAULT_ACCEPT_THREADS, NettyRuntime.availableProcessors());
+        }
+        bossGroup = transport.newEventLoopGroup(acceptors);
+        workerGroup = transport.newEventLoopGroup(config.getWorkerThreads());
+
+        if (config.getTickRate() > 0) {
+            // one simulation thread steps every room's world
+            simulation = new SimulationLoop(config.getTickRate());
+            simulation.start();
+        }
+        // ready before the first client can connect
+        rooms = new RoomManager(this, workerGroup, simulation, config);
+        workerGroup.scheduleAtFixedRate(this::purgeExpiredSessions, 10, 10, TimeUnit.SECONDS);
 
         try {
             ServerBootstrap bootstrap = new ServerBootstrap();
             bootstrap.group(bossGroup, workerGroup)
-                    .channel(NioServerSocketChannel.class)
+                    .channel(transport.serverChannelClass())
                     .childHandler(new ChannelInitializer<SocketChannel>() {
                         @Override
                         protected void initChannel(SocketChannel ch) {
+                            ProtocolSession.install(ch, epochMillis);
                             ChannelPipeline pipeline = ch.pipeline();
                             pipeline.addLast(
-                                // inbound: frame decoder -> message decoder -> handler
-                                new LengthFieldBasedFrameDecoder(1048576, 0, 4, 0, 4),
-                                new com.zeal.game.network.codec.ChatMessageDecoder(),
+                                // inbound: frame decoder -> rate limiter -> decompressor -> message decoder -> handler
+                                new LengthFieldBasedFrameDecoder(config.getMaxFrameBytes(), 0, 4, 0, 4),
+                                new RateLimitHandler(config.getRateLimitMessagesPerSecond(),
+                                        config.getRateLimitMessageBurst(), config.getRateLimitBytesPerSecond(),
+                                        config.getRateLimitByteBurst(), metrics),
+                                new FrameDecompressor(config.getMaxFrameBytes()),
+                                new GameMessageDecoder(metrics),
                                 new GameServerHandler(GameServer.this),
                                 // outbound: encoder then length prepender (prepender added before encoder so encoder runs first on outbound)
                                 new LengthFieldPrepender(4),
-                                new com.zeal.game.network.codec.ChatMessageEncoder()
+                                // compresses large frames, including pre-encoded broadcasts
+                                new FrameCompressor(config.getCompressionThreshold()),
+                                new GameMessageEncoder(metrics),
+                                // last, so it sees outbound messages before anything else
+                                new SlowConsumerHandler(config.getSlowConsumerPolicy(), config.getSlowConsumerBacklog(),
+                                        config.getSlowConsumerGraceMillis(), slowConsumerStats)
                             );
+                            if (config.isFlushConsolidationEnabled()) {
+                                // first in the pipeline so every flush (handler or broadcast) is coalesced
+                                pipeline.addFirst("flushBatching", new FlushBatchingHandler(
+                                        config.getFlushMaxMessages(), config.getFlushMaxDelayMicros()));
+                            }
+                            // at the head, so it counts bytes as they hit the socket
+                            pipeline.addFirst("traffic", trafficMetrics);
                         }
                     })
                     .option(ChannelOption.SO_BACKLOG, 128)
-                    .childOption(ChannelOption.SO_KEEPALIVE, true);
+                    .childOption(ChannelOption.SO_KEEPALIVE, true)
+                    .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(
+                            config.getWriteBufferLowWaterMark(), config.getWriteBufferHighWaterMark()));
+
+            if (acceptors > 1) {
+                bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+            }
 
-            serverChannel = bootstrap.bind(port).sync().channel();
-            logger.info("Server started on port " + port);
+            // Each bind registers a new server channel on the next boss loop; with SO_REUSEPORT the
+            // kernel load-balances incoming connections across them.
+            Channel first = bootstrap.bind(port).sync().channel();
+            serverChannels.add(first);
+            boundPort = ((InetSocketAddress) first.localAddress()).getPort();
+            for (int i = 1; i < acceptors; i++) {
+                serverChannels.add(bootstrap.bind(boundPort).sync().channel());
+            }
+            if (config.isUdpEnabled()) {
+                bindDatagramChannel(transport);
+            }
+            monitor = new GameServerMonitor(this);
+            monitor.register();
+            logger.info("Server started on port " + boundPort + " using " + transport
+                    + " transport (" + acceptors + " acceptor" + (acceptors > 1 ? "s" : "") + ")"
+                    + (datagramChannel != null ? ", UDP state channel enabled" : ""));
         } catch (Exception e) {
             logger.severe("Failed to start server: " + e.getMessage());
             shutdown();
         }
     }
 
-    public void broadcast(ChatMessage message) {
+    private void bindDatagramChannel(TransportType transport) {
+        try {
+            datagramChannel = new Bootstrap()
+                    .group(workerGroup)
+                    .channel(transport.datagramChannelClass())
+                    .handler(new ServerDatagramHandler(this))
+                    .bind(boundPort).sync().channel();
+        } catch (Exception e) {
+            // clients keep getting state over TCP
+            logger.warning("UDP state channel unavailable on port " + boundPort + ": " + e.getMessage());
+        }
+    }
+
+    public void broadcast(NetworkMessage message) {
         if (message == null) return;
-        
-        connectedClients.keySet().forEach(channel -> {
-            if (channel.isActive()) {
-                channel.writeAndFlush(message).addListener((ChannelFutureListener) future -> {
-                    if (!future.isSuccess()) {
-                        logger.warning("Failed to send message to " + channel.remoteAddress());
-                    }
-                });
-            }
+
+        // Encode once into a pooled buffer; the group writes a retainedDuplicate() to every
+        // channel and releases the original when done, so fan-out costs no re-encoding.
+        long start = System.nanoTime();
+        ByteBuf frame = encodeFrame(message);
+        ByteBuf compressed = compressFrame(frame);
+        metrics.onMessagesOut(clientGroup.size());
+        if (compressed != null) {
+            clientGroup.writeAndFlush(compressed, ACCEPTS_COMPRESSION)
+                    .addListener((ChannelGroupFutureListener) GameServer::logFailedWrites);
+            clientGroup.writeAndFlush(frame, ChannelMatchers.invert(ACCEPTS_COMPRESSION))
+                    .addListener((ChannelGroupFutureListener) GameServer::logFailedWrites);
+            // two group writes in flight; time the hand-off rather than either completion
+            metrics.onFanOut(System.nanoTime() - start);
+            return;
+        }
+        clientGroup.writeAndFlush(frame).addListener((ChannelGroupFutureListener) future -> {
+            metrics.onFanOut(System.nanoTime() - start);
+            logFailedWrites(future);
         });
     }
 
+    private static void logFailedWrites(ChannelGroupFuture future) {
+        if (future.isSuccess()) return;
+        for (ChannelFuture channelFuture : future) {
+            if (!channelFuture.isSuccess()) {
+                logger.warning("Failed to send message to " + channelFuture.channel().remoteAddress());
+            }
+        }
+    }
+
+    /**
+     * Deliver a chat message only to players in the sender's room within the interest radius of
+     * {@code senderId}. The frame is encoded now; the range query runs on the simulation thread,
+     * which owns positions, at the start of the next tick. Falls back to a room broadcast when
+     * interest management is off. If the simulation has stopped, the frame is released and the
+     * line dropped.
+     */
+    public void broadcastNearby(Channel sender, int senderId, ChatMessage message) {
+        Room room = RoomManager.roomOf(sender);
+        if (room == null) return;
+        float radius = config.getInterestRadius();
+        if (room.getWorld() == null || radius <= 0) {
+            room.broadcast(message);
+            return;
+        }
+        ByteBuf frame = encodeFrame(message);
+        ByteBuf compressed = compressFrame(frame);
+        try {
+            simulation.execute(() -> room.deliverNearby(senderId, frame, compressed, radius));
+        } catch (RejectedExecutionException e) {
+            // shutting down: the task will never run and release the frames
+            frame.release();
+            if (compressed != null) compressed.release();
+        }
+    }
+
+    /** Send a chat message to everyone in the sender's room. */
+    public void broadcastToRoom(Channel sender, ChatMessage message) {
+        Room room = RoomManager.roomOf(sender);
+        if (room != null) {
+            room.broadcast(message);
+        }
+    }
+
+    /** Move a registered client into another room (created on demand). */
+    public void joinRoom(Channel channel, String roomName) {
+        rooms.join(channel, roomName);
+    }
+
+    /** Client confirmed it holds the snapshot for {@code tick}; later deltas are built against it. */
+    public void acknowledgeSnapshot(Channel channel, long tick) {
+        ClientSnapshotState snapshots = channel.attr(ClientSnapshotState.KEY).get();
+        if (snapshots != null) {
+            snapshots.acknowledge(tick);
+        }
+    }
+
+    /** The connected channel of the session behind {@code token}, or null. */
+    Channel channelForSession(long token) {
+        SessionRegistry.Session session = sessions.find(token);
+        return session != null ? session.channel : null;
+    }
+
+    /** Client bound a datagram endpoint to its connection; repeated binds just refresh the address. */
+    void bindDatagramPeer(Channel channel, long token, InetSocketAddress address) {
+        UdpPeer peer = channel.attr(UdpPeer.KEY).get();
+        if (peer != null) {
+            peer.heardFrom(address);
+            return;
+        }
+        StatePacker packer = new StatePacker(token, config.getUdpMtu(), config.getUdpRedundancy());
+        if (channel.attr(UdpPeer.KEY).setIfAbsent(new UdpPeer(packer, address)) == null) {
+            logger.fine("UDP state channel bound for " + channel.remoteAddress() + " at " + address);
+        }
+    }
+
+    /**
+     * Sends unreliable state to a client: over UDP while it has a live datagram endpoint and the
+     * frame fits a datagram, otherwise over its TCP connection. Datagram frames are only queued
+     * in the client's packer, so everything sent to it in one batch shares as few datagrams as
+     * the MTU allows; call {@link #flushDatagrams()} after the batch. Simulation thread only.
+     */
+    void sendState(Channel channel, NetworkMessage message) {
+        UdpPeer peer = channel.attr(UdpPeer.KEY).get();
+        Channel udp = datagramChannel;
+        if (peer != null && udp != null && peer.isLive(System.nanoTime(), UDP_PEER_TIMEOUT_NANOS)) {
+            ByteBuf frame = encodeFrame(message);
+            try {
+                if (offerState(peer, udp, frame)) return;
+            } finally {
+                frame.release();
+            }
+        }
+        channel.writeAndFlush(message, channel.voidPromise());
+    }
+
+    private boolean offerState(UdpPeer peer, Channel udp, ByteBuf frame) {
+        StatePacker packer = peer.packer;
+        if (!packer.fits(frame.readableBytes())) return false;
+        if (!packer.hasPending()) {
+            pendingPeers.add(peer);
+        } else if (packer.isFull()) {
+            // more updates in one batch than the packer holds: send those first
+            packer.flush(udp, peer.getAddress());
+        }
+        return packer.offer(frame);
+    }
+
+    /** Packs and writes the datagrams queued by {@link #sendState}, one flush per client. Simulation thread only. */
+    void flushDatagrams() {
+        Channel udp = datagramChannel;
+        if (udp == null) {
+            pendingPeers.clear();
+            return;
+        }
+        for (int i = 0; i < pendingPeers.size(); i++) {
+            UdpPeer peer = pendingPeers.get(i);
+            peer.packer.flush(udp, peer.getAddress());
+        }
+        pendingPeers.clear();
+        udp.flush();
+    }
+
+    /** Optional protocol features this server accepts from clients. */
+    int getSupportedFeatures() {
+        return config.isCompressionEnabled() ? NetworkConstants.FEATURE_COMPRESSION : 0;
+    }
+
+    /** Queue a client's input for the next simulation tick. */
+    public void submitInput(Channel channel, PlayerInputMessage input) {
+        Room room = RoomManager.roomOf(channel);
+        if (room != null && room.getWorld() != null) {
+            room.getWorld().submitInput(input);
+        }
+    }
+
+    /** The running simulation, or null when the server was configured without one. */
+    public SimulationLoop getSimulation() {
+        return simulation;
+    }
+
+    /** Encode a message once for fan-out to many channels; the caller owns the returned buffer. */
+    ByteBuf encodeFrame(NetworkMessage message) {
+        long start = System.nanoTime();
+        ByteBuf frame = GameMessageEncoder.encode(ByteBufAllocator.DEFAULT, message, epochMillis);
+        metrics.onEncoded(System.nanoTime() - start);
+        return frame;
+    }
+
+    /**
+     * Compressed copy of a fan-out frame for the recipients that negotiated compression, or null
+     * when the frame is under the threshold or would not shrink. Deflating once here spares every
+     * recipient's {@link FrameCompressor} the same work; it passes the copy through as is.
+     */
+    ByteBuf compressFrame(ByteBuf frame) {
+        if (!config.isCompressionEnabled() || frame.readableBytes() <= config.getCompressionThreshold()) return null;
+        return FrameCompressor.compress(ByteBufAllocator.DEFAULT, frame);
+    }
+
+    /** The variant of a fan-out frame to write to {@code channel}; see {@link #compressFrame}. */
+    static ByteBuf frameFor(Channel channel, ByteBuf frame, ByteBuf compressed) {
+        return compressed != null && acceptsCompression(channel) ? compressed : frame;
+    }
+
+    private static boolean acceptsCompression(Channel channel) {
+        return ProtocolSession.get(channel).hasFeature(NetworkConstants.FEATURE_COMPRESSION);
+    }
+
+    public ServerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /** JMX/text view of the server's metrics; null before {@link #start()}. */
+    public GameServerMonitor getMonitor() {
+        return monitor;
+    }
+
+    public int getConnectedClientCount() {
+        return connectedClients.size();
+    }
+
+    EventLoopGroup getWorkerGroup() {
+        return workerGroup;
+    }
+
+    Iterable<Channel> getClientChannels() {
+        return clientGroup;
+    }
+
+    /** Server-wide backpressure counters; per-client ones are on each {@link SlowConsumerHandler}. */
+    public SlowConsumerStats getSlowConsumerStats() {
+        return slowConsumerStats;
+    }
+
+    public RoomManager getRooms() {
+        return rooms;
+    }
+
+    long getEpochMillis() {
+        return epochMillis;
+    }
+
+    Channel channelForPlayer(int playerId) {
+        return channelsByPlayerId.get(playerId);
+    }
+
     public void shutdown() {
-        if (serverChannel != null) {
+        if (monitor != null) {
+            monitor.unregister();
+        }
+        if (simulation != null) {
+            simulation.stop();
+        }
+        for (Channel serverChannel : serverChannels) {
             serverChannel.close();
         }
+        if (datagramChannel != null) {
+            datagramChannel.close();
+            datagramChannel = null;
+        }
+        serverChannels.clear();
         if (bossGroup != null) {
             bossGroup.shutdownGracefully();
         }
@@ -86,20 +438,115 @@ public class GameServer {
         }
     }
 
-    public void registerClient(Channel channel, String username) {
+    /** Port the server is listening on; useful when started with port 0. Returns 0 before start. */
+    public int getPort() {
+        return boundPort;
+    }
+
+    /**
+     * Registers a client that completed the HELLO handshake and assigns its player id; without a
+     * name it is called after that id. Runs on the client's event loop and takes no server-wide
+     * lock, so connects on different loops proceed in parallel.
+     */
+    public int registerClient(Channel channel, String username) {
+        int playerId = nextPlayerId.getAndIncrement();
+        if (username == null) {
+            username = "Player-" + playerId;
+        }
+        SessionRegistry.Session session = sessions.create(playerId, username, channel);
+        register(channel, session);
+        rooms.join(channel, RoomManager.DEFAULT_ROOM);
+        return playerId;
+    }
+
+    /**
+     * Restores the session behind {@code token} on a new connection: same player id, same room,
+     * and the room's chat after {@code lastSequence} replayed. If the old connection is still
+     * registered (the drop has not been noticed yet) it is retired first. Unknown or expired
+     * tokens fall back to a fresh registration. Only the session itself is locked, so two
+     * connections racing for the same token are serialized while other clients are unaffected.
+     */
+    public int resumeClient(Channel channel, long token, long lastSequence, String username) {
+        SessionRegistry.Session session = sessions.find(token);
+        if (session == null) {
+            return registerClient(channel, username);
+        }
+        synchronized (session) {
+            Channel previous = session.channel;
+            if (previous != null && previous != channel) {
+                removeClient(previous);
+                previous.close();
+            }
+            if (!sessions.attach(session, channel)) {
+                // expired and purged since the lookup
+                return registerClient(channel, username);
+            }
+        }
+        register(channel, session);
+        rooms.join(channel, session.room != null ? session.room : RoomManager.DEFAULT_ROOM, Math.max(0, lastSequence));
+        logger.info("Session resumed: " + session.name + " (id " + session.playerId + ")");
+        return session.playerId;
+    }
+
+    /**
+     * Records a client that completed the handshake. Called on the client's own event loop, so
+     * WELCOME is in its outbound buffer before any broadcast can reach it: writes from other
+     * threads are queued behind this task. Who else is there is the room's business; the client
+     * gets the roster of whichever room it joins next.
+     */
+    private void register(Channel channel, SessionRegistry.Session session) {
+        int playerId = session.playerId;
+        String username = session.name;
+        ProtocolSession.get(channel).setPlayer(playerId, username);
+        channel.attr(ClientSnapshotState.KEY).set(new ClientSnapshotState());
+        channel.writeAndFlush(new WelcomeMessage(playerId, session.token, ProtocolSession.get(channel).getFeatures()));
+
         connectedClients.put(channel, username);
-        logger.info("Client connected: " + username);
-        broadcast(new ChatMessage("Server", username + " joined the game"));
+        channelsByPlayerId.put(playerId, channel);
+        clientGroup.add(channel);
+        logger.info("Client connected: " + username + " (id " + playerId + ")");
     }
 
+    /** Refuses a handshake: tells the client why, then closes the connection. */
+    void rejectClient(Channel channel, String reason) {
+        logger.info("Rejected " + channel.remoteAddress() + ": " + reason);
+        channel.writeAndFlush(new HandshakeRejectedMessage(NetworkConstants.PROTOCOL_VERSION, reason))
+                .addListener(ChannelFutureListener.CLOSE);
+    }
+
+    /** Idempotent: only the first call for a channel (close, or a resume taking over) does the work. */
     public void removeClient(Channel channel) {
         String username = connectedClients.remove(channel);
+        clientGroup.remove(channel);
         if (username != null) {
             logger.info("Client disconnected: " + username);
-            broadcast(new ChatMessage("Server", username + " left the game"));
+            Room room = RoomManager.roomOf(channel);
+            sessions.detach(channel, room != null ? room.getName() : null);
+            rooms.leave(channel);
+            int playerId = ProtocolSession.get(channel).getPlayerId();
+            channelsByPlayerId.remove(playerId, channel);
+        }
+    }
+
+    /**
+     * Whether a chat line with this sender sequence is new for the channel's session. Lines a
+     * client sends again after resuming are recognised and dropped. A resume can take a session
+     * over from a connection whose drop was not noticed yet, so the old and the new connection's
+     * loops may both get here; the session's monitor keeps the window consistent, and lines still
+     * arriving on the retired connection are dropped (the client sends them again).
+     */
+    boolean acceptChatSequence(Channel channel, long senderSequence) {
+        SessionRegistry.Session session = channel.attr(SessionRegistry.SESSION_KEY).get();
+        if (session == null) return true;
+        synchronized (session) {
+            return session.channel == channel && session.inboundChat.accept(senderSequence);
         }
     }
 
+    private void purgeExpiredSessions() {
+        sessions.purgeExpired();
+    }
+
     public static void main(String[] args) {
         GameServer server = new GameServer(NetworkConstants.DEFAULT_PORT);
         server.start();
@@ -4,11 +4,26 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import com.zeal.game.network.ChatMessage;
+import com.zeal.game.network.HelloMessage;
+import com.zeal.game.network.JoinRoomMessage;
+import com.zeal.game.network.NetworkConstants;
+import com.zeal.game.network.NetworkMessage;
+import com.zeal.game.network.PlayerInputMessage;
+import com.zeal.game.network.ResumeMessage;
+import com.zeal.game.network.SnapshotAckMessage;
+import com.zeal.game.network.codec.ProtocolSession;
+import com.zeal.game.network.logging.NetworkLog;
 
-import java.util.logging.Logger;
+import java.util.logging.Level;
 
-public class GameServerHandler extends SimpleChannelInboundHandler<ChatMessage> {
-    private static final Logger logger = Logger.getLogger(GameServerHandler.class.getName());
+public class GameServerHandler extends SimpleChannelInboundHandler<NetworkMessage> {
+    private static final NetworkLog logger = NetworkLog.get(GameServerHandler.class);
+    /**
+     * Chat lines starting with this only reach players within the interest radius. Like state,
+     * proximity chat is best effort: it skips the room's numbering and history, so a line sent
+     * or delivered across a reconnect is lost rather than replayed.
+     */
+    public static final String LOCAL_CHAT_PREFIX = NetworkConstants.LOCAL_CHAT_PREFIX;
     private final GameServer gameServer;
 
     public GameServerHandler(GameServer gameServer) {
@@ -16,16 +31,92 @@ public class GameServerHandler extends SimpleChannelInboundHandler<ChatMessage>
     }
 
     @Override
-    protected void channelRead0(ChannelHandlerContext ctx, ChatMessage msg) {
-        logger.info("Received message: " + msg);
-        gameServer.broadcast(msg);
+    protected void channelRead0(ChannelHandlerContext ctx, NetworkMessage msg) {
+        ProtocolSession session = ProtocolSession.get(ctx.channel());
+        if (msg instanceof HelloMessage) {
+            if (!session.isRegistered()) {
+                HelloMessage hello = (HelloMessage) msg;
+                if (!checkVersion(ctx.channel(), hello.getProtocolVersion())) return;
+                session.setFeatures(hello.getFeatures() & gameServer.getSupportedFeatures());
+                gameServer.registerClient(ctx.channel(), sanitizeName(hello.getName()));
+            }
+        } else if (msg instanceof ResumeMessage) {
+            if (!session.isRegistered()) {
+                ResumeMessage resume = (ResumeMessage) msg;
+                if (!checkVersion(ctx.channel(), resume.getProtocolVersion())) return;
+                session.setFeatures(resume.getFeatures() & gameServer.getSupportedFeatures());
+                gameServer.resumeClient(ctx.channel(), resume.getSessionToken(), resume.getLastSequence(),
+                        sanitizeName(resume.getName()));
+            }
+        } else if (msg instanceof ChatMessage) {
+            ChatMessage chat = (ChatMessage) msg;
+            try {
+                relayChat(ctx.channel(), session, chat);
+            } finally {
+                chat.recycle();
+            }
+        } else if (msg instanceof PlayerInputMessage) {
+            if (session.isRegistered()) {
+                gameServer.submitInput(ctx.channel(), (PlayerInputMessage) msg);
+            }
+        } else if (msg instanceof JoinRoomMessage) {
+            if (session.isRegistered()) {
+                gameServer.joinRoom(ctx.channel(), ((JoinRoomMessage) msg).getRoom());
+            }
+        } else if (msg instanceof SnapshotAckMessage) {
+            gameServer.acknowledgeSnapshot(ctx.channel(), ((SnapshotAckMessage) msg).getTick());
+        }
     }
 
-    @Override
-    public void channelActive(ChannelHandlerContext ctx) {
-        Channel channel = ctx.channel();
-        String address = channel.remoteAddress().toString();
-        gameServer.registerClient(channel, "Player-" + address);
+    private void relayChat(Channel channel, ProtocolSession session, ChatMessage chat) {
+        if (!session.isRegistered()) {
+            // nothing to attribute the message to before the handshake
+            return;
+        }
+        if (!gameServer.acceptChatSequence(channel, chat.getSenderSequence())) {
+            // a line the client re-sent after reconnecting that was already relayed
+            return;
+        }
+        logger.sampled(Level.INFO, () -> "Received message: " + chat);
+        String content = chat.getContent();
+        if (content != null && content.startsWith(LOCAL_CHAT_PREFIX)) {
+            // proximity chat: re-encoded without the prefix and only delivered to nearby players
+            ChatMessage nearby = new ChatMessage(session.getPlayerId(), session.getPlayerName(),
+                    content.substring(LOCAL_CHAT_PREFIX.length()), chat.getTimestamp());
+            nearby.setSenderSequence(chat.getSenderSequence());
+            gameServer.broadcastNearby(channel, session.getPlayerId(), nearby);
+            return;
+        }
+        if (chat.getSenderId() == session.getPlayerId()) {
+            // the room copies what it hands to its loop, so the caller can recycle once this returns
+            gameServer.broadcastToRoom(channel, chat);
+            return;
+        }
+        // never trust the sender id a client puts on the wire
+        ChatMessage stamped = ChatMessage.newInstance(session.getPlayerId(), session.getPlayerName(),
+                chat.getContent(), chat.getTimestamp());
+        stamped.setSenderSequence(chat.getSenderSequence());
+        try {
+            gameServer.broadcastToRoom(channel, stamped);
+        } finally {
+            stamped.recycle();
+        }
+    }
+
+    /** Turns away a client speaking another protocol version before it is registered anywhere. */
+    private boolean checkVersion(Channel channel, int version) {
+        if (version == NetworkConstants.PROTOCOL_VERSION) return true;
+        gameServer.rejectClient(channel, "Incompatible client (protocol " + version + ", server speaks "
+                + NetworkConstants.PROTOCOL_VERSION + ")");
+        return false;
+    }
+
+    /** The requested display name, trimmed and capped; null if none was given (the server picks one). */
+    private static String sanitizeName(String requested) {
+        if (requested == null) return null;
+        String name = requested.trim();
+        if (name.isEmpty()) return null;
+        return name.length() > NetworkConstants.MAX_NAME_LENGTH ? name.substring(0, NetworkConstants.MAX_NAME_LENGTH) : name;
     }
 
     @Override
@@ -38,4 +129,4 @@ public class GameServerHandler extends SimpleChannelInboundHandler<ChatMessage>
         logger.warning("Exception caught: " + cause.getMessage());
         ctx.close();
     }
-}
\ No newline at end of file
+}
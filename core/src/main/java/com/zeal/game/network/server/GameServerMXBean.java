@@ -0,0 +1,54 @@
+package com.zeal.game.network.server;
+
+/** Management interface of a running {@link GameServer}; times are in microseconds. */
+public interface GameServerMXBean {
+    int getConnectedClients();
+
+    int getRooms();
+
+    long getMessagesIn();
+
+    long getMessagesOut();
+
+    double getMessagesInPerSecond();
+
+    double getMessagesOutPerSecond();
+
+    double getBytesInPerSecond();
+
+    double getBytesOutPerSecond();
+
+    long getDecodeP99Micros();
+
+    long getEncodeP99Micros();
+
+    long getFanOutP50Micros();
+
+    long getFanOutP99Micros();
+
+    long getFanOutMaxMicros();
+
+    long getEventLoopPendingTasks();
+
+    long getOutboundBufferBytes();
+
+    long getMaxChannelOutboundBufferBytes();
+
+    long getTickP99Micros();
+
+    long getTickOverruns();
+
+    long getSlowConsumerDropped();
+
+    long getSlowConsumerCoalesced();
+
+    long getSlowConsumerDisconnects();
+
+    long getLogRecordsDropped();
+
+    /** Times a client exceeded its inbound rate limit and reading from it was paused. */
+    long getRateLimitPauses();
+
+    /** Clears the latency histograms so the next readings cover a fresh interval. */
+    void resetHistograms();
+}
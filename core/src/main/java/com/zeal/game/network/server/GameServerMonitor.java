@@ -0,0 +1,277 @@
+package com.zeal.game.network.server;
+
+import com.zeal.game.network.logging.NetworkLog;
+import com.zeal.game.network.metrics.LatencyHistogram;
+import com.zeal.game.network.metrics.ServerMetrics;
+import com.zeal.game.network.server.simulation.SimulationLoop;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOutboundBuffer;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read side of the server's metrics: combines the hot-path {@link ServerMetrics} with gauges
+ * computed on demand (clients, event-loop queues, outbound buffers) and exposes them as a JMX
+ * MXBean and as a text dump. Nothing here runs on the hot path.
+ */
+public class GameServerMonitor implements GameServerMXBean {
+    private static final NetworkLog logger = NetworkLog.get(GameServerMonitor.class);
+    // how long a sample waits for busy event loops; loops that miss it are left out
+    private static final long SAMPLE_TIMEOUT_MILLIS = 200;
+
+    private final GameServer server;
+    private final ServerMetrics metrics;
+    private ObjectName objectName;
+
+    GameServerMonitor(GameServer server) {
+        this.server = server;
+        this.metrics = server.getMetrics();
+    }
+
+    /** Registers as {@code com.zeal.game:type=GameServer,port=<port>}; failures are only logged. */
+    void register() {
+        try {
+            MBeanServer mbeans = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("com.zeal.game:type=GameServer,port=" + server.getPort());
+            if (!mbeans.isRegistered(name)) {
+                mbeans.registerMBean(this, name);
+                objectName = name;
+            }
+        } catch (Exception e) {
+            logger.warning("Could not register JMX bean: " + e.getMessage());
+        }
+    }
+
+    void unregister() {
+        if (objectName == null) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (Exception e) {
+            logger.warning("Could not unregister JMX bean: " + e.getMessage());
+        }
+        objectName = null;
+    }
+
+    @Override
+    public int getConnectedClients() {
+        return server.getConnectedClientCount();
+    }
+
+    @Override
+    public int getRooms() {
+        RoomManager rooms = server.getRooms();
+        return rooms == null ? 0 : rooms.getRooms().size();
+    }
+
+    @Override
+    public long getMessagesIn() {
+        return metrics.getMessagesIn().getTotal();
+    }
+
+    @Override
+    public long getMessagesOut() {
+        return metrics.getMessagesOut().getTotal();
+    }
+
+    @Override
+    public double getMessagesInPerSecond() {
+        return metrics.getMessagesIn().getRatePerSecond();
+    }
+
+    @Override
+    public double getMessagesOutPerSecond() {
+        return metrics.getMessagesOut().getRatePerSecond();
+    }
+
+    @Override
+    public double getBytesInPerSecond() {
+        return metrics.getBytesIn().getRatePerSecond();
+    }
+
+    @Override
+    public double getBytesOutPerSecond() {
+        return metrics.getBytesOut().getRatePerSecond();
+    }
+
+    @Override
+    public long getDecodeP99Micros() {
+        return micros(metrics.getDecodeNanos().getPercentile(0.99));
+    }
+
+    @Override
+    public long getEncodeP99Micros() {
+        return micros(metrics.getEncodeNanos().getPercentile(0.99));
+    }
+
+    @Override
+    public long getFanOutP50Micros() {
+        return micros(metrics.getFanOutNanos().getPercentile(0.50));
+    }
+
+    @Override
+    public long getFanOutP99Micros() {
+        return micros(metrics.getFanOutNanos().getPercentile(0.99));
+    }
+
+    @Override
+    public long getFanOutMaxMicros() {
+        return micros(metrics.getFanOutNanos().getMax());
+    }
+
+    @Override
+    public long getEventLoopPendingTasks() {
+        EventLoopGroup group = server.getWorkerGroup();
+        if (group == null) return 0;
+        long pending = 0;
+        for (EventExecutor executor : group) {
+            if (executor instanceof SingleThreadEventExecutor) {
+                pending += ((SingleThreadEventExecutor) executor).pendingTasks();
+            }
+        }
+        return pending;
+    }
+
+    @Override
+    public long getOutboundBufferBytes() {
+        return sampleOutbound()[0];
+    }
+
+    @Override
+    public long getMaxChannelOutboundBufferBytes() {
+        return sampleOutbound()[1];
+    }
+
+    @Override
+    public long getTickP99Micros() {
+        SimulationLoop simulation = server.getSimulation();
+        return simulation == null ? 0 : micros(simulation.getTickDurations().getPercentile(0.99));
+    }
+
+    @Override
+    public long getTickOverruns() {
+        SimulationLoop simulation = server.getSimulation();
+        return simulation == null ? 0 : simulation.getOverrunTicks();
+    }
+
+    @Override
+    public long getSlowConsumerDropped() {
+        return server.getSlowConsumerStats().getDropped();
+    }
+
+    @Override
+    public long getSlowConsumerCoalesced() {
+        return server.getSlowConsumerStats().getCoalesced();
+    }
+
+    @Override
+    public long getSlowConsumerDisconnects() {
+        return server.getSlowConsumerStats().getDisconnects();
+    }
+
+    @Override
+    public long getLogRecordsDropped() {
+        return NetworkLog.getDroppedRecords();
+    }
+
+    @Override
+    public long getRateLimitPauses() {
+        return metrics.getThrottled().getTotal();
+    }
+
+    @Override
+    public void resetHistograms() {
+        metrics.getDecodeNanos().reset();
+        metrics.getEncodeNanos().reset();
+        metrics.getFanOutNanos().reset();
+    }
+
+    /** Multi-line human-readable report of every metric, e.g. for a periodic console dump. */
+    public String dump() {
+        StringBuilder sb = new StringBuilder(512);
+        long[] outbound = sampleOutbound();
+        sb.append(String.format("clients=%d rooms=%d pendingTasks=%d outbound=%dB (max %dB per channel)%n",
+                getConnectedClients(), getRooms(), getEventLoopPendingTasks(), outbound[0], outbound[1]));
+        sb.append(String.format("in: %.0f msg/s %.0f B/s (total %d)   out: %.0f msg/s %.0f B/s (total %d)%n",
+                getMessagesInPerSecond(), getBytesInPerSecond(), getMessagesIn(),
+                getMessagesOutPerSecond(), getBytesOutPerSecond(), getMessagesOut()));
+        appendHistogram(sb, "decode", metrics.getDecodeNanos());
+        appendHistogram(sb, "encode", metrics.getEncodeNanos());
+        appendHistogram(sb, "fan-out", metrics.getFanOutNanos());
+        SimulationLoop simulation = server.getSimulation();
+        if (simulation != null) {
+            appendHistogram(sb, "tick", simulation.getTickDurations());
+        }
+        sb.append("slow consumers: ").append(server.getSlowConsumerStats())
+                .append("   rate-limit pauses: ").append(getRateLimitPauses())
+                .append("   log records dropped: ").append(getLogRecordsDropped());
+        return sb.toString();
+    }
+
+    private static void appendHistogram(StringBuilder sb, String name, LatencyHistogram histogram) {
+        sb.append(String.format("%-8s %s%n", name, histogram.summary()));
+    }
+
+    /**
+     * {total, max per channel} of bytes queued in outbound buffers. The buffers belong to their
+     * channel's event loop, so each loop sums its own channels and this waits for the results.
+     */
+    private long[] sampleOutbound() {
+        Map<EventLoop, List<Channel>> byLoop = new IdentityHashMap<>();
+        for (Channel channel : server.getClientChannels()) {
+            byLoop.computeIfAbsent(channel.eventLoop(), loop -> new ArrayList<>()).add(channel);
+        }
+        List<Future<long[]>> samples = new ArrayList<>(byLoop.size());
+        for (Map.Entry<EventLoop, List<Channel>> entry : byLoop.entrySet()) {
+            EventLoop loop = entry.getKey();
+            List<Channel> channels = entry.getValue();
+            // waiting on our own loop would only ever time out
+            samples.add(loop.inEventLoop()
+                    ? loop.newSucceededFuture(sumOutbound(channels))
+                    : loop.submit(() -> sumOutbound(channels)));
+        }
+        long[] result = new long[2];
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SAMPLE_TIMEOUT_MILLIS);
+        for (Future<long[]> sample : samples) {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            if (!sample.awaitUninterruptibly(remaining, TimeUnit.NANOSECONDS) || !sample.isSuccess()) {
+                continue;
+            }
+            long[] loop = sample.getNow();
+            result[0] += loop[0];
+            result[1] = Math.max(result[1], loop[1]);
+        }
+        return result;
+    }
+
+    private static long[] sumOutbound(List<Channel> channels) {
+        long total = 0;
+        long max = 0;
+        for (Channel channel : channels) {
+            long bytes = outboundBytes(channel);
+            total += bytes;
+            max = Math.max(max, bytes);
+        }
+        return new long[] {total, max};
+    }
+
+    private static long outboundBytes(Channel channel) {
+        ChannelOutboundBuffer buffer = channel.unsafe().outboundBuffer();
+        return buffer == null ? 0 : buffer.totalPendingWriteBytes();
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -0,0 +1,155 @@
+package com.zeal.game.network.server;
+
+import com.zeal.game.network.NetworkConstants;
+import com.zeal.game.network.metrics.ServerMetrics;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.ScheduledFuture;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-connection flood protection: two token buckets, one for frames and one for bytes, refilled
+ * continuously at the configured rates up to their burst size. A frame that finds a bucket empty
+ * is held and the channel stops reading ({@code autoRead=false}) until the buckets have refilled
+ * enough to let it through; then held frames are passed on in order and reading resumes. An
+ * abusive client is thereby slowed down to its budget (TCP pushes back on it) instead of being
+ * disconnected, and never gets more than its share of decode and fan-out work.
+ * <p>
+ * Sits right behind the frame decoder, so it sees complete frames before any decoding happens.
+ * Frames larger than the byte burst are let through once the bucket is full and leave it in
+ * debt, so they cannot stall the connection; the frame decoder's maximum frame size bounds them.
+ * <p>
+ * Player inputs and snapshot acks only draw on the byte bucket: a well-behaved client sends them
+ * at frame or tick rate, which must not eat into (or be starved by) the chat message budget.
+ */
+public class RateLimitHandler extends ChannelInboundHandlerAdapter {
+    private final double messagesPerNano;
+    private final double bytesPerNano;
+    private final double messageBurst;
+    private final double byteBurst;
+    private final ServerMetrics metrics;
+
+    private double messageTokens;
+    private double byteTokens;
+    private long lastRefillNanos = System.nanoTime();
+    // frames that arrived after the budget ran out, oldest first
+    private final ArrayDeque<ByteBuf> held = new ArrayDeque<>();
+    private ScheduledFuture<?> resume;
+
+    public RateLimitHandler(int messagesPerSecond, int messageBurst, int bytesPerSecond, int byteBurst,
+                            ServerMetrics metrics) {
+        if (messagesPerSecond <= 0 || bytesPerSecond <= 0 || messageBurst <= 0 || byteBurst <= 0) {
+            throw new IllegalArgumentException("Rate limits must be positive");
+        }
+        this.messagesPerNano = messagesPerSecond / 1e9;
+        this.bytesPerNano = bytesPerSecond / 1e9;
+        this.messageBurst = messageBurst;
+        this.byteBurst = byteBurst;
+        this.messageTokens = messageBurst;
+        this.byteTokens = byteBurst;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        if (!(msg instanceof ByteBuf)) {
+            ctx.fireChannelRead(msg);
+            return;
+        }
+        ByteBuf frame = (ByteBuf) msg;
+        if (held.isEmpty() && tryAcquire(frame)) {
+            ctx.fireChannelRead(frame);
+            return;
+        }
+        held.add(frame);
+        pause(ctx);
+    }
+
+    private boolean tryAcquire(ByteBuf frame) {
+        refill();
+        int bytes = frame.readableBytes();
+        boolean message = countsAsMessage(frame);
+        if ((message && messageTokens < 1) || byteTokens < Math.min(bytes, byteBurst)) return false;
+        if (message) messageTokens -= 1;
+        byteTokens -= bytes;
+        return true;
+    }
+
+    /** False for inputs and acks; they are too small to be compressed, so the first byte is their opcode. */
+    private static boolean countsAsMessage(ByteBuf frame) {
+        if (!frame.isReadable()) return true;
+        byte opcode = frame.getByte(frame.readerIndex());
+        return opcode != NetworkConstants.PLAYER_INPUT && opcode != NetworkConstants.SNAPSHOT_ACK;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        long elapsed = now - lastRefillNanos;
+        lastRefillNanos = now;
+        messageTokens = Math.min(messageBurst, messageTokens + elapsed * messagesPerNano);
+        byteTokens = Math.min(byteBurst, byteTokens + elapsed * bytesPerNano);
+    }
+
+    private void pause(ChannelHandlerContext ctx) {
+        if (resume != null) return;
+        if (ctx.channel().config().isAutoRead()) {
+            ctx.channel().config().setAutoRead(false);
+            metrics.onThrottled();
+        }
+        resume = ctx.executor().schedule(() -> drain(ctx), nanosUntilAffordable(held.peek()), TimeUnit.NANOSECONDS);
+    }
+
+    private long nanosUntilAffordable(ByteBuf frame) {
+        double messagesMissing = countsAsMessage(frame) ? Math.max(0, 1 - messageTokens) : 0;
+        double bytesMissing = Math.max(0, Math.min(frame.readableBytes(), byteBurst) - byteTokens);
+        // at least a millisecond, so a debt is paid off in a few wake-ups rather than many
+        return Math.max(TimeUnit.MILLISECONDS.toNanos(1),
+                (long) Math.ceil(Math.max(messagesMissing / messagesPerNano, bytesMissing / bytesPerNano)));
+    }
+
+    private void drain(ChannelHandlerContext ctx) {
+        resume = null;
+        boolean passed = false;
+        ByteBuf frame;
+        while ((frame = held.peek()) != null && tryAcquire(frame)) {
+            held.poll();
+            ctx.fireChannelRead(frame);
+            passed = true;
+        }
+        if (passed) {
+            ctx.fireChannelReadComplete();
+        }
+        if (!held.isEmpty()) {
+            pause(ctx);
+        } else if (ctx.channel().isActive()) {
+            // turning autoRead back on issues a read
+            ctx.channel().config().setAutoRead(true);
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+        releaseHeld();
+        ctx.fireChannelInactive();
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        releaseHeld();
+    }
+
+    private void releaseHeld() {
+        if (resume != null) {
+            resume.cancel(false);
+            resume = null;
+        }
+        ByteBuf frame;
+        while ((frame = held.poll()) != null) {
+            ReferenceCountUtil.release(frame);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.zeal.game.network.server;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.zeal.game.network.ChatMessage;
+import com.zeal.game.network.NetworkConstants;
+import com.zeal.game.network.NetworkMessage;
+import com.zeal.game.network.PlayerJoinedMessage;
+import com.zeal.game.network.PlayerLeftMessage;
+import com.zeal.game.network.RoomJoinedMessage;
+import com.zeal.game.network.WorldDeltaMessage;
+import com.zeal.game.network.WorldSnapshotMessage;
+import com.zeal.game.network.codec.ProtocolSession;
+import com.zeal.game.network.metrics.ServerMetrics;
+import com.zeal.game.network.server.simulation.PlayerEntity;
+import com.zeal.game.network.server.simulation.World;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An independent match: its own members, chat scope and {@link World}.
+ * <p>
+ * Each room is pinned to one Netty {@link EventLoop}. Membership is only changed on that loop
+ * and broadcasts fan out on it, so neither needs locks; other threads (the simulation) read an
+ * immutable member array that is republished on every change. The world belongs to the
+ * simulation thread.
+ * <p>
+ * Chat lines get consecutive sequence numbers and the most recent ones are kept in a
+ * {@link ChatHistory}, so a client resuming its session is sent only what it missed.
+ */
+public class Room {
+    private static final Channel[] NO_MEMBERS = new Channel[0];
+
+    private final String name;
+    private final EventLoop eventLoop;
+    private final World world;
+    private final GameServer server;
+
+    // event loop only
+    private final ChatHistory history;
+    private final List<Channel> members = new ArrayList<>();
+    private boolean closed;
+    // highest sequence already fanned out; anything newer is still queued on the loop
+    private long deliveredSequence;
+    // published copy for readers on other threads
+    private volatile Channel[] memberView = NO_MEMBERS;
+    // simulation thread only
+    private final IntArray nearbyScratch = new IntArray();
+
+    Room(String name, EventLoop eventLoop, World world, GameServer server, int historySize) {
+        this.name = name;
+        this.eventLoop = eventLoop;
+        this.world = world;
+        this.server = server;
+        this.history = new ChatHistory(historySize);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public EventLoop getEventLoop() {
+        return eventLoop;
+    }
+
+    /** The room's world, or null when the server runs without a simulation. */
+    public World getWorld() {
+        return world;
+    }
+
+    public int getMemberCount() {
+        return memberView.length;
+    }
+
+    /**
+     * Adds a member and greets it: it is told which room it is in and where the room's chat
+     * stands, and gets the roster of the other members. With {@code resumeAfter >= 0} the member
+     * is resuming and is also sent the stored lines after that sequence which were fanned out
+     * while it was away. Then every member, the newcomer included, hears about it. Returns false
+     * if the room was closed meanwhile. Event loop only, which orders every roster change of the
+     * room against its chat.
+     */
+    boolean addMember(Channel channel, long resumeAfter) {
+        assert eventLoop.inEventLoop();
+        if (closed) return false;
+        long base = resumeAfter >= 0 ? Math.min(resumeAfter, deliveredSequence) : deliveredSequence;
+        channel.write(new RoomJoinedMessage(name, base), channel.voidPromise());
+        for (int i = 0; i < members.size(); i++) {
+            ProtocolSession other = ProtocolSession.get(members.get(i));
+            channel.write(new PlayerJoinedMessage(other.getPlayerId(), other.getPlayerName()), channel.voidPromise());
+        }
+        // after the roster, so replayed lines find their senders' names
+        if (resumeAfter >= 0) {
+            history.replay(base, deliveredSequence, channel);
+        }
+        channel.flush();
+        members.add(channel);
+        memberView = members.toArray(NO_MEMBERS);
+        ProtocolSession session = ProtocolSession.get(channel);
+        broadcast(new PlayerJoinedMessage(session.getPlayerId(), session.getPlayerName()));
+        return true;
+    }
+
+    /** Removes a member and tells the rest; returns false if it was not one. Event loop only. */
+    boolean removeMember(Channel channel) {
+        assert eventLoop.inEventLoop();
+        if (!members.remove(channel)) return false;
+        memberView = members.toArray(NO_MEMBERS);
+        if (!members.isEmpty()) {
+            broadcast(new PlayerLeftMessage(ProtocolSession.get(channel).getPlayerId()));
+        }
+        return true;
+    }
+
+    /** Event loop only. */
+    boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    /** Marks an empty room as retired so late joiners go to a fresh instance. Event loop only. */
+    void close() {
+        closed = true;
+        history.clear();
+    }
+
+    /**
+     * Sends a message to every member. Chat lines are numbered, encoded and recorded on the room's
+     * event loop, which thereby fixes their order; a line from another thread is handed over as a
+     * pooled copy, so the caller may recycle its message as soon as this returns. Other messages
+     * are encoded once on the calling thread and only the fan-out of retained duplicates runs on
+     * the loop.
+     */
+    public void broadcast(NetworkMessage message) {
+        long start = System.nanoTime();
+        if (message instanceof ChatMessage) {
+            ChatMessage chat = (ChatMessage) message;
+            if (eventLoop.inEventLoop()) {
+                publishChat(chat, start);
+            } else {
+                ChatMessage line = chat.copy();
+                eventLoop.execute(() -> {
+                    try {
+                        publishChat(line, start);
+                    } finally {
+                        line.recycle();
+                    }
+                });
+            }
+            return;
+        }
+        ByteBuf frame = server.encodeFrame(message);
+        ByteBuf compressed = server.compressFrame(frame);
+        if (eventLoop.inEventLoop()) {
+            fanOut(frame, compressed, 0, start);
+        } else {
+            eventLoop.execute(() -> fanOut(frame, compressed, 0, start));
+        }
+    }
+
+    /** Numbers a chat line, records it for resuming members and fans it out. Event loop only. */
+    private void publishChat(ChatMessage chat, long start) {
+        if (closed) return;
+        long sequence = history.nextSequence();
+        chat.setSequence(sequence);
+        ByteBuf frame = server.encodeFrame(chat);
+        ByteBuf compressed = server.compressFrame(frame);
+        history.add(sequence, frame);
+        fanOut(frame, compressed, sequence, start);
+    }
+
+    private void fanOut(ByteBuf frame, ByteBuf compressed, long sequence, long start) {
+        if (sequence > 0) deliveredSequence = sequence;
+        int sent = 0;
+        try {
+            for (int i = 0; i < members.size(); i++) {
+                Channel channel = members.get(i);
+                if (channel.isActive()) {
+                    ByteBuf variant = GameServer.frameFor(channel, frame, compressed);
+                    channel.writeAndFlush(variant.retainedDuplicate(), channel.voidPromise());
+                    sent++;
+                }
+            }
+        } finally {
+            frame.release();
+            if (compressed != null) compressed.release();
+            ServerMetrics metrics = server.getMetrics();
+            metrics.onMessagesOut(sent);
+            metrics.onFanOut(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Runs on the simulation thread after the room's world stepped. Every member gets the
+     * state as a delta against the last snapshot it acknowledged; with interest management each
+     * member only sees players within the radius.
+     */
+    void publishSnapshot(long tick, float interestRadius) {
+        Channel[] view = memberView;
+        if (view.length == 0) return;
+        // without interest management every member shares one state object
+        WorldSnapshotMessage shared = interestRadius > 0 ? null : world.snapshot(tick);
+        for (Channel channel : view) {
+            ClientSnapshotState snapshots = channel.attr(ClientSnapshotState.KEY).get();
+            if (snapshots == null || !channel.isActive()) continue;
+            WorldSnapshotMessage state = shared != null ? shared
+                    : world.snapshotAround(tick, ProtocolSession.get(channel).getPlayerId(), interestRadius);
+            WorldDeltaMessage delta = snapshots.nextDelta(state);
+            if (delta != null) {
+                server.sendState(channel, delta);
+            }
+        }
+        server.flushDatagrams();
+    }
+
+    /**
+     * Delivers a chat message to members within {@code radius} of {@code senderId}. Must run on
+     * the simulation thread, which owns positions. Releases both frames; {@code compressed} is
+     * null when the line is not worth compressing.
+     */
+    void deliverNearby(int senderId, ByteBuf frame, ByteBuf compressed, float radius) {
+        int sent = 0;
+        try {
+            PlayerEntity sender = world.getPlayer(senderId);
+            if (sender == null) return;
+            IntArray nearby = nearbyScratch;
+            nearby.clear();
+            world.queryNearby(sender.getX(), sender.getY(), radius, nearby);
+            for (int i = 0; i < nearby.size; i++) {
+                Channel channel = server.channelForPlayer(nearby.get(i));
+                if (channel != null && channel.isActive()) {
+                    ByteBuf variant = GameServer.frameFor(channel, frame, compressed);
+                    channel.writeAndFlush(variant.retainedDuplicate(), channel.voidPromise());
+                    sent++;
+                }
+            }
+        } finally {
+            frame.release();
+            if (compressed != null) compressed.release();
+            server.getMetrics().onMessagesOut(sent);
+        }
+    }
+
+    /** Convenience for server announcements scoped to this room. */
+    void announce(String text) {
+        broadcast(new ChatMessage(NetworkConstants.SERVER_NAME, text));
+    }
+}
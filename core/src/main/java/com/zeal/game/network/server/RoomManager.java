@@ -0,0 +1,157 @@
+package com.zeal.game.network.server;
+
+import com.zeal.game.network.codec.ProtocolSession;
+import com.zeal.game.network.server.simulation.SimulationLoop;
+import com.zeal.game.network.server.simulation.World;
+import com.zeal.game.network.logging.NetworkLog;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.AttributeKey;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Creates rooms on demand, pins each to the next worker event loop and moves clients between
+ * them. Rooms other than the default one are retired when their last member leaves.
+ */
+public class RoomManager {
+    private static final NetworkLog logger = NetworkLog.get(RoomManager.class);
+
+    public static final String DEFAULT_ROOM = "lobby";
+    public static final int MAX_NAME_LENGTH = 32;
+    static final AttributeKey<Room> ROOM_KEY = AttributeKey.valueOf("zeal.room");
+
+    private final ConcurrentHashMap<String, Room> rooms = new ConcurrentHashMap<>();
+    private final GameServer server;
+    private final EventLoopGroup eventLoops;
+    private final SimulationLoop simulation;
+    private final ServerConfig config;
+
+    RoomManager(GameServer server, EventLoopGroup eventLoops, SimulationLoop simulation, ServerConfig config) {
+        this.server = server;
+        this.eventLoops = eventLoops;
+        this.simulation = simulation;
+        this.config = config;
+    }
+
+    /** The room a client currently belongs to, or null between rooms. */
+    public static Room roomOf(Channel channel) {
+        return channel.attr(ROOM_KEY).get();
+    }
+
+    public Collection<Room> getRooms() {
+        return Collections.unmodifiableCollection(rooms.values());
+    }
+
+    /**
+     * Moves a registered client into the named room, leaving its current one first. The room
+     * attribute is switched immediately so a later leave or join always sees it. The membership
+     * changes run on the rooms' loops: the old room is left first and only then is the join
+     * queued on the new room's loop, so everything the old room sent the client is written before
+     * the new room's {@code ROOM_JOINED} and chat.
+     */
+    public void join(Channel channel, String roomName) {
+        join(channel, roomName, -1);
+    }
+
+    /**
+     * Joins like {@link #join(Channel, String)}; with {@code resumeAfter >= 0} the client is
+     * resuming a session and is sent the room's chat after that sequence instead of an announcement.
+     */
+    void join(Channel channel, String roomName, long resumeAfter) {
+        String name = normalize(roomName);
+        Room current = roomOf(channel);
+        if (current != null && current.getName().equals(name)) return;
+        Room room = rooms.computeIfAbsent(name, this::createRoom);
+        channel.attr(ROOM_KEY).set(room);
+        Runnable enter = () -> room.getEventLoop().execute(() -> enterRoom(channel, room, resumeAfter));
+        if (current != null) {
+            current.getEventLoop().execute(() -> {
+                leaveRoom(channel, current);
+                enter.run();
+            });
+        } else {
+            enter.run();
+        }
+    }
+
+    private void enterRoom(Channel channel, Room room, long resumeAfter) {
+        if (channel.attr(ROOM_KEY).get() != room) {
+            // left or moved on again before this ran
+            return;
+        }
+        if (!room.addMember(channel, resumeAfter)) {
+            // retired between lookup and join: go through the map again for a fresh instance
+            if (channel.attr(ROOM_KEY).compareAndSet(room, null)) {
+                join(channel, room.getName(), resumeAfter);
+            }
+            return;
+        }
+        int playerId = ProtocolSession.get(channel).getPlayerId();
+        if (room.getWorld() != null) {
+            simulate(() -> room.getWorld().addPlayer(playerId));
+        }
+        if (resumeAfter < 0) {
+            room.announce(ProtocolSession.get(channel).getPlayerName() + " joined " + room.getName());
+        }
+    }
+
+    /** Removes a client from its room, if any. */
+    public void leave(Channel channel) {
+        Room room = channel.attr(ROOM_KEY).getAndSet(null);
+        if (room == null) return;
+        room.getEventLoop().execute(() -> leaveRoom(channel, room));
+    }
+
+    private void leaveRoom(Channel channel, Room room) {
+        if (!room.removeMember(channel)) {
+            // the join never went through
+            return;
+        }
+        int playerId = ProtocolSession.get(channel).getPlayerId();
+        if (room.getWorld() != null) {
+            simulate(() -> room.getWorld().removePlayer(playerId));
+        }
+        if (room.isEmpty() && !DEFAULT_ROOM.equals(room.getName())) {
+            room.close();
+            rooms.remove(room.getName(), room);
+            if (room.getWorld() != null) simulation.removeWorld(room.getWorld());
+            logger.info("Room closed: " + room.getName());
+        } else {
+            room.announce(ProtocolSession.get(channel).getPlayerName() + " left " + room.getName());
+        }
+    }
+
+    /** Queues a world mutation; dropped once the simulation has stopped, as the worlds go with it. */
+    private void simulate(Runnable task) {
+        try {
+            simulation.execute(task);
+        } catch (RejectedExecutionException e) {
+            // server shutting down
+        }
+    }
+
+    private Room createRoom(String name) {
+        World world = null;
+        if (simulation != null) {
+            float interestRadius = config.getInterestRadius();
+            world = new World(interestRadius > 0 ? interestRadius : World.SIZE);
+        }
+        Room room = new Room(name, eventLoops.next(), world, server, config.getChatHistorySize());
+        if (world != null) {
+            simulation.addWorld(world, (tick, w) -> room.publishSnapshot(tick, config.getInterestRadius()));
+        }
+        logger.info("Room created: " + name);
+        return room;
+    }
+
+    static String normalize(String roomName) {
+        String name = roomName == null ? "" : roomName.trim().toLowerCase(Locale.ROOT);
+        if (name.isEmpty()) return DEFAULT_ROOM;
+        return name.length() > MAX_NAME_LENGTH ? name.substring(0, MAX_NAME_LENGTH) : name;
+    }
+}
@@ -0,0 +1,304 @@
+package com.zeal.game.network.server;
+
+import com.zeal.game.network.NetworkConstants;
+import com.zeal.game.network.TransportType;
+import com.zeal.game.network.udp.StatePacker;
+
+/**
+ * Tunables for {@link GameServer}. Defaults are suitable for a single busy room;
+ * set values before calling {@link GameServer#start()}.
+ */
+public class ServerConfig {
+    /** Acceptors used on SO_REUSEPORT transports when {@link #setAcceptThreads} was left at 0. */
+    public static final int MAX_DEFAULT_ACCEPT_THREADS = 4;
+
+    private TransportType transport = TransportType.preferred();
+    private int acceptThreads = 0;
+    private int workerThreads = 0;
+    private int flushMaxMessages = 64;
+    private long flushMaxDelayMicros = 0;
+    private int tickRate = 30;
+    private float interestRadius = 0f;
+    private int writeBufferLowWaterMark = 32 * 1024;
+    private int writeBufferHighWaterMark = 128 * 1024;
+    private SlowConsumerPolicy slowConsumerPolicy = SlowConsumerPolicy.COALESCE;
+    private int slowConsumerBacklog = 256;
+    private long slowConsumerGraceMillis = 5000;
+    private int chatHistorySize = 256;
+    private long sessionResumeMillis = 30_000;
+    private int maxFrameBytes = 4 * 1024;
+    private int rateLimitMessagesPerSecond = 60;
+    private int rateLimitMessageBurst = 120;
+    private int rateLimitBytesPerSecond = 32 * 1024;
+    private int rateLimitByteBurst = 32 * 1024;
+    private boolean compressionEnabled = true;
+    private int compressionThreshold = NetworkConstants.DEFAULT_COMPRESSION_THRESHOLD;
+    private boolean udpEnabled = true;
+    private int udpMtu = NetworkConstants.DEFAULT_UDP_MTU;
+    private int udpRedundancy = NetworkConstants.DEFAULT_UDP_REDUNDANCY;
+
+    public TransportType getTransport() {
+        return transport;
+    }
+
+    public ServerConfig setTransport(TransportType transport) {
+        this.transport = transport;
+        return this;
+    }
+
+    /**
+     * Number of acceptor threads. Values above 1 bind the port once per thread with SO_REUSEPORT
+     * and only take effect on transports that support it (epoll); 0 picks one per core, up to
+     * {@value #MAX_DEFAULT_ACCEPT_THREADS}, there and a single acceptor elsewhere.
+     */
+    public int getAcceptThreads() {
+        return acceptThreads;
+    }
+
+    public ServerConfig setAcceptThreads(int acceptThreads) {
+        this.acceptThreads = acceptThreads;
+        return this;
+    }
+
+    /** Worker event-loop threads; 0 uses Netty's default of twice the core count. */
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public ServerConfig setWorkerThreads(int workerThreads) {
+        this.workerThreads = Math.max(0, workerThreads);
+        return this;
+    }
+
+    /**
+     * Maximum number of flushes that are coalesced into one socket write. A value of 1 or less
+     * disables consolidation and every writeAndFlush hits the socket immediately.
+     */
+    public int getFlushMaxMessages() {
+        return flushMaxMessages;
+    }
+
+    public ServerConfig setFlushMaxMessages(int flushMaxMessages) {
+        this.flushMaxMessages = flushMaxMessages;
+        return this;
+    }
+
+    /**
+     * Longest time a pending flush may wait outside of a read. 0 means "at the end of the
+     * current event-loop tick", which batches everything written during that tick.
+     */
+    public long getFlushMaxDelayMicros() {
+        return flushMaxDelayMicros;
+    }
+
+    public ServerConfig setFlushMaxDelayMicros(long flushMaxDelayMicros) {
+        this.flushMaxDelayMicros = Math.max(0, flushMaxDelayMicros);
+        return this;
+    }
+
+    public boolean isFlushConsolidationEnabled() {
+        return flushMaxMessages > 1;
+    }
+
+    /** Simulation ticks per second; 0 disables the simulation loop (chat-only server). */
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    public ServerConfig setTickRate(int tickRate) {
+        this.tickRate = Math.max(0, tickRate);
+        return this;
+    }
+
+    /**
+     * Area-of-interest radius in world units: clients only receive state for players within it,
+     * and proximity chat only reaches them. 0, the default, disables filtering: everyone sees
+     * every entity in the room and proximity chat goes to the whole room. Large worlds should
+     * set a radius to cut snapshot size and fan-out.
+     */
+    public float getInterestRadius() {
+        return interestRadius;
+    }
+
+    public ServerConfig setInterestRadius(float interestRadius) {
+        this.interestRadius = Math.max(0f, interestRadius);
+        return this;
+    }
+
+    /**
+     * Per-channel outbound buffer limits in bytes. A channel becomes unwritable above the high
+     * mark and writable again below the low mark; while unwritable the slow-consumer policy applies.
+     */
+    public int getWriteBufferLowWaterMark() {
+        return writeBufferLowWaterMark;
+    }
+
+    public int getWriteBufferHighWaterMark() {
+        return writeBufferHighWaterMark;
+    }
+
+    public ServerConfig setWriteBufferWaterMark(int low, int high) {
+        if (low < 0 || high < low) {
+            throw new IllegalArgumentException("Invalid water marks: low=" + low + ", high=" + high);
+        }
+        this.writeBufferLowWaterMark = low;
+        this.writeBufferHighWaterMark = high;
+        return this;
+    }
+
+    public SlowConsumerPolicy getSlowConsumerPolicy() {
+        return slowConsumerPolicy;
+    }
+
+    public ServerConfig setSlowConsumerPolicy(SlowConsumerPolicy slowConsumerPolicy) {
+        this.slowConsumerPolicy = slowConsumerPolicy;
+        return this;
+    }
+
+    /** Messages held per unwritable client before it is disconnected (or state is dropped). */
+    public int getSlowConsumerBacklog() {
+        return slowConsumerBacklog;
+    }
+
+    public ServerConfig setSlowConsumerBacklog(int slowConsumerBacklog) {
+        this.slowConsumerBacklog = Math.max(1, slowConsumerBacklog);
+        return this;
+    }
+
+    /** How long a client may stay unwritable before it is disconnected; 0 never disconnects. */
+    public long getSlowConsumerGraceMillis() {
+        return slowConsumerGraceMillis;
+    }
+
+    public ServerConfig setSlowConsumerGraceMillis(long slowConsumerGraceMillis) {
+        this.slowConsumerGraceMillis = Math.max(0, slowConsumerGraceMillis);
+        return this;
+    }
+
+    /** Chat lines kept per room for replay to resuming clients; 0 disables replay. */
+    public int getChatHistorySize() {
+        return chatHistorySize;
+    }
+
+    public ServerConfig setChatHistorySize(int chatHistorySize) {
+        this.chatHistorySize = Math.max(0, chatHistorySize);
+        return this;
+    }
+
+    /** How long a dropped client's session can be resumed with its token; 0 disables resume. */
+    public long getSessionResumeMillis() {
+        return sessionResumeMillis;
+    }
+
+    public ServerConfig setSessionResumeMillis(long sessionResumeMillis) {
+        this.sessionResumeMillis = Math.max(0, sessionResumeMillis);
+        return this;
+    }
+
+    /**
+     * Largest frame a client may send. Client traffic is small (chat lines, inputs, acks), so
+     * anything bigger is treated as a corrupt stream and the connection is closed.
+     */
+    public int getMaxFrameBytes() {
+        return maxFrameBytes;
+    }
+
+    public ServerConfig setMaxFrameBytes(int maxFrameBytes) {
+        this.maxFrameBytes = Math.max(256, maxFrameBytes);
+        return this;
+    }
+
+    /**
+     * Inbound frames per second a client may send on average, and how many it may send in a
+     * burst. Beyond that the server stops reading from it until it is back within budget.
+     * Player inputs and snapshot acks, which scale with the frame and tick rate, are not counted
+     * here; they only draw on the byte budget.
+     */
+    public int getRateLimitMessagesPerSecond() {
+        return rateLimitMessagesPerSecond;
+    }
+
+    public int getRateLimitMessageBurst() {
+        return rateLimitMessageBurst;
+    }
+
+    public ServerConfig setRateLimitMessages(int perSecond, int burst) {
+        if (perSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Invalid message rate limit: " + perSecond + "/s, burst " + burst);
+        }
+        this.rateLimitMessagesPerSecond = perSecond;
+        this.rateLimitMessageBurst = burst;
+        return this;
+    }
+
+    /** Inbound bytes per second a client may send on average, and in a burst. */
+    public int getRateLimitBytesPerSecond() {
+        return rateLimitBytesPerSecond;
+    }
+
+    public int getRateLimitByteBurst() {
+        return rateLimitByteBurst;
+    }
+
+    public ServerConfig setRateLimitBytes(int perSecond, int burst) {
+        if (perSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Invalid byte rate limit: " + perSecond + "/s, burst " + burst);
+        }
+        this.rateLimitBytesPerSecond = perSecond;
+        this.rateLimitByteBurst = burst;
+        return this;
+    }
+
+    /** Whether clients that offer it get large frames compressed; they can always send compressed frames. */
+    public boolean isCompressionEnabled() {
+        return compressionEnabled;
+    }
+
+    public ServerConfig setCompressionEnabled(boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+        return this;
+    }
+
+    /** Frames up to this many bytes are always sent uncompressed. */
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    public ServerConfig setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = Math.max(64, compressionThreshold);
+        return this;
+    }
+
+    /**
+     * Whether world state may travel over UDP (same port number as TCP) for clients that bind a
+     * datagram endpoint. Chat and other reliable messages always stay on TCP.
+     */
+    public boolean isUdpEnabled() {
+        return udpEnabled;
+    }
+
+    public ServerConfig setUdpEnabled(boolean udpEnabled) {
+        this.udpEnabled = udpEnabled;
+        return this;
+    }
+
+    /** Largest datagram payload sent; state frames that do not fit go over TCP instead. */
+    public int getUdpMtu() {
+        return udpMtu;
+    }
+
+    public ServerConfig setUdpMtu(int udpMtu) {
+        this.udpMtu = Math.max(256, udpMtu);
+        return this;
+    }
+
+    /** Previously sent state frames repeated in each datagram to cover for lost ones; 0 disables. */
+    public int getUdpRedundancy() {
+        return udpRedundancy;
+    }
+
+    public ServerConfig setUdpRedundancy(int udpRedundancy) {
+        this.udpRedundancy = Math.max(0, Math.min(StatePacker.MAX_REDUNDANCY, udpRedundancy));
+        return this;
+    }
+}
@@ -0,0 +1,82 @@
+package com.zeal.game.network.server;
+
+import com.zeal.game.network.NetworkConstants;
+import com.zeal.game.network.NetworkMessage;
+import com.zeal.game.network.PlayerInputMessage;
+import com.zeal.game.network.SnapshotAckMessage;
+import com.zeal.game.network.codec.GameMessageDecoder;
+import com.zeal.game.network.codec.ProtocolSession;
+import com.zeal.game.network.logging.NetworkLog;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.socket.DatagramPacket;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inbound side of the server's UDP socket. Every datagram carries the session token, which
+ * identifies (and authenticates) the TCP connection it belongs to: BIND attaches the sender
+ * address to that connection and is answered with BOUND, STATE carries inputs and snapshot
+ * acks. Malformed or unknown datagrams are dropped without a reply.
+ */
+class ServerDatagramHandler extends SimpleChannelInboundHandler<DatagramPacket> {
+    private static final NetworkLog logger = NetworkLog.get(ServerDatagramHandler.class);
+
+    private final GameServer gameServer;
+    // reused for every datagram; event loop only
+    private final List<ByteBuf> frames = new ArrayList<>();
+
+    ServerDatagramHandler(GameServer gameServer) {
+        this.gameServer = gameServer;
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, DatagramPacket packet) {
+        ByteBuf in = packet.content();
+        if (in.readableBytes() < NetworkConstants.UDP_HEADER_BYTES) return;
+        byte kind = in.readByte();
+        long token = in.readLong();
+        Channel channel = gameServer.channelForSession(token);
+        if (channel == null) return;
+        if (kind == NetworkConstants.UDP_BIND) {
+            gameServer.bindDatagramPeer(channel, token, packet.sender());
+            ByteBuf reply = ctx.alloc().buffer(NetworkConstants.UDP_HEADER_BYTES);
+            reply.writeByte(NetworkConstants.UDP_BOUND);
+            reply.writeLong(token);
+            ctx.writeAndFlush(new DatagramPacket(reply, packet.sender()), ctx.voidPromise());
+        } else if (kind == NetworkConstants.UDP_STATE) {
+            UdpPeer peer = channel.attr(UdpPeer.KEY).get();
+            if (peer == null) return;
+            peer.heardFrom(packet.sender());
+            readState(channel, peer, in);
+        }
+    }
+
+    private void readState(Channel channel, UdpPeer peer, ByteBuf in) {
+        int playerId = ProtocolSession.get(channel).getPlayerId();
+        try {
+            peer.receiver.read(in, frames);
+            for (int i = 0; i < frames.size(); i++) {
+                NetworkMessage msg = GameMessageDecoder.decodeState(frames.get(i), playerId);
+                if (msg instanceof PlayerInputMessage) {
+                    gameServer.submitInput(channel, (PlayerInputMessage) msg);
+                } else if (msg instanceof SnapshotAckMessage) {
+                    gameServer.acknowledgeSnapshot(channel, ((SnapshotAckMessage) msg).getTick());
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.fine("Dropping malformed datagram from " + channel.remoteAddress() + ": " + e.getMessage());
+        } finally {
+            frames.clear();
+        }
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        // e.g. ICMP port unreachable from a client that went away; the socket itself is fine
+        logger.fine("Datagram error: " + cause.getMessage());
+    }
+}
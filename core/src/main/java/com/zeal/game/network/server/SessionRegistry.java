@@ -0,0 +1,126 @@
+package com.zeal.game.network.server;
+
+import com.zeal.game.network.SequenceWindow;
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+
+import java.security.SecureRandom;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resumable sessions by token. A session is attached to its channel while connected; when the
+ * connection drops it stays claimable for a grace period, so a client that reconnects with the
+ * token gets its player id, room and missed chat back instead of joining from scratch.
+ */
+class SessionRegistry {
+    static final AttributeKey<Session> SESSION_KEY = AttributeKey.valueOf("zeal.resumableSession");
+
+    /**
+     * What survives a dropped connection. Attaching, detaching and expiring happen while holding
+     * the session's own monitor; there is no registry-wide lock.
+     */
+    static final class Session {
+        final long token;
+        final int playerId;
+        final String name;
+        // also read by the datagram handler to route datagrams by token
+        volatile Channel channel;
+        String room;
+        long detachedAtNanos;
+        // sender sequences of chat lines already relayed; guarded by the session's monitor, since
+        // a resume may take over from a channel whose loop is still reading
+        final SequenceWindow inboundChat = new SequenceWindow();
+
+        Session(long token, int playerId, String name) {
+            this.token = token;
+            this.playerId = playerId;
+            this.name = name;
+        }
+    }
+
+    private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final long graceNanos;
+
+    SessionRegistry(long graceMillis) {
+        this.graceNanos = TimeUnit.MILLISECONDS.toNanos(graceMillis);
+    }
+
+    Session create(int playerId, String name, Channel channel) {
+        long token;
+        do {
+            token = random.nextLong();
+        } while (token == 0 || sessions.containsKey(token));
+        Session session = new Session(token, playerId, name);
+        session.channel = channel;
+        sessions.put(token, session);
+        channel.attr(SESSION_KEY).set(session);
+        return session;
+    }
+
+    /**
+     * The session for {@code token} if it can still be resumed; it is removed when it expired.
+     * A session whose connection the server still considers live is returned too, the caller
+     * takes it over from the old channel.
+     */
+    Session find(long token) {
+        Session session = token == 0 ? null : sessions.get(token);
+        if (session == null) return null;
+        synchronized (session) {
+            if (session.channel == null && expired(session, System.nanoTime())) {
+                sessions.remove(token, session);
+                return null;
+            }
+        }
+        return session;
+    }
+
+    /**
+     * Attaches {@code channel} to the session; false if the session expired and was dropped in
+     * the meantime. Call while holding the session's monitor.
+     */
+    boolean attach(Session session, Channel channel) {
+        if (sessions.get(session.token) != session) return false;
+        session.channel = channel;
+        channel.attr(SESSION_KEY).set(session);
+        return true;
+    }
+
+    /** Connection of {@code channel} ended: keep its session around for the grace period. */
+    void detach(Channel channel, String room) {
+        Session session = channel.attr(SESSION_KEY).getAndSet(null);
+        if (session == null) return;
+        synchronized (session) {
+            if (session.channel != channel) return;
+            session.channel = null;
+            session.room = room;
+            session.detachedAtNanos = System.nanoTime();
+            if (graceNanos == 0) {
+                sessions.remove(session.token, session);
+            }
+        }
+    }
+
+    /** Drops detached sessions whose grace period is over; called periodically. */
+    void purgeExpired() {
+        long now = System.nanoTime();
+        for (Iterator<Session> it = sessions.values().iterator(); it.hasNext(); ) {
+            Session session = it.next();
+            synchronized (session) {
+                if (session.channel == null && expired(session, now)) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    int size() {
+        return sessions.size();
+    }
+
+    private boolean expired(Session session, long now) {
+        return now - session.detachedAtNanos > graceNanos;
+    }
+}
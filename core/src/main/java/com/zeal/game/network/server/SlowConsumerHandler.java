@@ -0,0 +1,202 @@
+package com.zeal.game.network.server;
+
+import com.zeal.game.network.NetworkConstants;
+import com.zeal.game.network.WorldDeltaMessage;
+import com.zeal.game.network.WorldSnapshotMessage;
+import com.zeal.game.network.logging.NetworkLog;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelException;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.ScheduledFuture;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a slow client from growing server memory without bound.
+ * <p>
+ * While the channel is writable, writes pass straight through. Once it crosses the high water
+ * mark, further writes are held in a bounded backlog and handled according to the
+ * {@link SlowConsumerPolicy}; the backlog is written out in order when the channel becomes
+ * writable again. A client that stays unwritable longer than the grace period, or overflows the
+ * backlog with messages that may not be dropped, is disconnected.
+ * Must be the last handler in the pipeline so it sees messages before they are encoded.
+ */
+public class SlowConsumerHandler extends ChannelDuplexHandler {
+    private static final NetworkLog logger = NetworkLog.get(SlowConsumerHandler.class);
+
+    private final SlowConsumerPolicy policy;
+    private final int maxBacklog;
+    private final long graceMillis;
+    private final SlowConsumerStats serverStats;
+    private final SlowConsumerStats stats = new SlowConsumerStats();
+
+    // event loop only
+    private final ArrayDeque<Pending> backlog = new ArrayDeque<>();
+    private ScheduledFuture<?> graceCheck;
+
+    public SlowConsumerHandler(SlowConsumerPolicy policy, int maxBacklog, long graceMillis, SlowConsumerStats serverStats) {
+        if (maxBacklog <= 0) throw new IllegalArgumentException("maxBacklog must be positive: " + maxBacklog);
+        this.policy = policy;
+        this.maxBacklog = maxBacklog;
+        this.graceMillis = graceMillis;
+        this.serverStats = serverStats;
+    }
+
+    /** The handler installed on {@code channel}, or null if backpressure handling is not in its pipeline. */
+    public static SlowConsumerHandler get(Channel channel) {
+        return channel.pipeline().get(SlowConsumerHandler.class);
+    }
+
+    /** Backpressure counters for this client only. */
+    public SlowConsumerStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+        if (backlog.isEmpty() && ctx.channel().isWritable()) {
+            ctx.write(msg, promise);
+            return;
+        }
+        hold(ctx, msg, promise);
+    }
+
+    private void hold(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+        boolean state = isWorldState(msg);
+        if (state && policy == SlowConsumerPolicy.COALESCE && removeOldestState()) {
+            stats.onCoalesced();
+            serverStats.onCoalesced();
+        }
+        if (backlog.size() >= maxBacklog) {
+            if (policy == SlowConsumerPolicy.DROP_OLDEST && removeOldestState()) {
+                stats.onDropped();
+                serverStats.onDropped();
+            } else {
+                discard(msg, promise);
+                disconnect(ctx, "backlog of " + maxBacklog + " messages is full");
+                return;
+            }
+        }
+        backlog.add(new Pending(msg, promise));
+    }
+
+    /** Discards the oldest queued world-state message; returns false if there is none. */
+    private boolean removeOldestState() {
+        for (Iterator<Pending> it = backlog.iterator(); it.hasNext(); ) {
+            Pending pending = it.next();
+            if (isWorldState(pending.msg)) {
+                it.remove();
+                discard(pending.msg, pending.promise);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (ctx.channel().isWritable()) {
+            cancelGraceCheck();
+            drain(ctx);
+        } else {
+            stats.onUnwritable();
+            serverStats.onUnwritable();
+            scheduleGraceCheck(ctx);
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    private void drain(ChannelHandlerContext ctx) {
+        if (backlog.isEmpty()) return;
+        Pending pending;
+        while (ctx.channel().isWritable() && (pending = backlog.poll()) != null) {
+            ctx.write(pending.msg, pending.promise);
+        }
+        ctx.flush();
+    }
+
+    private void scheduleGraceCheck(ChannelHandlerContext ctx) {
+        if (graceMillis <= 0 || graceCheck != null) return;
+        graceCheck = ctx.executor().schedule(() -> {
+            graceCheck = null;
+            if (!ctx.channel().isWritable()) {
+                disconnect(ctx, "unwritable for more than " + graceMillis + " ms");
+            }
+        }, graceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelGraceCheck() {
+        if (graceCheck != null) {
+            graceCheck.cancel(false);
+            graceCheck = null;
+        }
+    }
+
+    private void disconnect(ChannelHandlerContext ctx, String reason) {
+        if (!ctx.channel().isActive()) return;
+        stats.onDisconnect();
+        serverStats.onDisconnect();
+        logger.warning("Disconnecting slow client " + ctx.channel().remoteAddress() + ": " + reason);
+        releaseBacklog();
+        ctx.close();
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        cancelGraceCheck();
+        releaseBacklog();
+        if (stats.getDropped() > 0 || stats.getCoalesced() > 0) {
+            logger.info("Slow consumer " + ctx.channel().remoteAddress() + " closed: " + stats);
+        }
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        cancelGraceCheck();
+        releaseBacklog();
+    }
+
+    private void releaseBacklog() {
+        Pending pending;
+        while ((pending = backlog.poll()) != null) {
+            discard(pending.msg, pending.promise);
+        }
+    }
+
+    private static void discard(Object msg, ChannelPromise promise) {
+        ReferenceCountUtil.release(msg);
+        if (!promise.isVoid()) {
+            promise.tryFailure(new ChannelException("Dropped: slow consumer"));
+        }
+    }
+
+    /** World state is safe to skip: deltas are built against what the client acknowledged. */
+    private static boolean isWorldState(Object msg) {
+        if (msg instanceof WorldDeltaMessage || msg instanceof WorldSnapshotMessage) return true;
+        if (msg instanceof ByteBuf) {
+            // pre-encoded frames start with their opcode
+            ByteBuf frame = (ByteBuf) msg;
+            if (!frame.isReadable()) return false;
+            byte opcode = frame.getByte(frame.readerIndex());
+            return opcode == NetworkConstants.WORLD_DELTA || opcode == NetworkConstants.WORLD_SNAPSHOT;
+        }
+        return false;
+    }
+
+    private static final class Pending {
+        final Object msg;
+        final ChannelPromise promise;
+
+        Pending(Object msg, ChannelPromise promise) {
+            this.msg = msg;
+            this.promise = promise;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.zeal.game.network.server;
+
+/** What the server does with outbound messages while a client cannot keep up. */
+public enum SlowConsumerPolicy {
+    /** Hold messages; when the backlog is full, drop the oldest world-state message. */
+    DROP_OLDEST,
+    /** Hold messages, but keep only the newest world-state message (deltas are ack-based, so skipping is safe). */
+    COALESCE,
+    /** Hold everything; the client is disconnected once the grace period or backlog limit is exceeded. */
+    DISCONNECT
+}
@@ -0,0 +1,56 @@
+package com.zeal.game.network.server;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for backpressure decisions. {@link GameServer} keeps one server-wide instance and every
+ * {@link SlowConsumerHandler} keeps its own for its client; handlers update both.
+ */
+public class SlowConsumerStats {
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder disconnects = new LongAdder();
+    private final LongAdder unwritableEvents = new LongAdder();
+
+    void onDropped() {
+        dropped.increment();
+    }
+
+    void onCoalesced() {
+        coalesced.increment();
+    }
+
+    void onDisconnect() {
+        disconnects.increment();
+    }
+
+    void onUnwritable() {
+        unwritableEvents.increment();
+    }
+
+    /** Messages discarded because the client was not draining its socket. */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /** World-state messages replaced by a newer one before they were written. */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /** Clients disconnected for staying unwritable too long or overflowing their backlog. */
+    public long getDisconnects() {
+        return disconnects.sum();
+    }
+
+    /** Number of times a channel crossed its high water mark. */
+    public long getUnwritableEvents() {
+        return unwritableEvents.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("dropped=%d coalesced=%d disconnects=%d unwritable=%d",
+                getDropped(), getCoalesced(), getDisconnects(), getUnwritableEvents());
+    }
+}
@@ -0,0 +1,37 @@
+package com.zeal.game.network.server;
+
+import com.zeal.game.network.metrics.ServerMetrics;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+
+/**
+ * Counts raw bytes read from and written to the socket, length prefixes included. Shared by all
+ * channels; placed at the head of the pipeline so it sees exactly what goes over the wire.
+ */
+@ChannelHandler.Sharable
+public class TrafficMetricsHandler extends ChannelDuplexHandler {
+    private final ServerMetrics metrics;
+
+    public TrafficMetricsHandler(ServerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        if (msg instanceof ByteBuf) {
+            metrics.onBytesIn(((ByteBuf) msg).readableBytes());
+        }
+        ctx.fireChannelRead(msg);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+        if (msg instanceof ByteBuf) {
+            metrics.onBytesOut(((ByteBuf) msg).readableBytes());
+        }
+        ctx.write(msg, promise);
+    }
+}
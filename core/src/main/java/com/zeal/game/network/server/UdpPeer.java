@@ -0,0 +1,42 @@
+package com.zeal.game.network.server;
+
+import com.zeal.game.network.udp.StatePacker;
+import com.zeal.game.network.udp.StateReceiver;
+import io.netty.util.AttributeKey;
+
+import java.net.InetSocketAddress;
+
+/**
+ * The datagram endpoint a client bound to its TCP connection, attached to that channel. State
+ * goes out over it while the client keeps sending datagrams; after a silent spell the server
+ * falls back to TCP until the next one arrives.
+ */
+final class UdpPeer {
+    static final AttributeKey<UdpPeer> KEY = AttributeKey.valueOf("zeal.udpPeer");
+
+    // simulation thread only
+    final StatePacker packer;
+    // datagram channel's event loop only
+    final StateReceiver receiver = new StateReceiver();
+    // may change when the client's NAT mapping does
+    private volatile InetSocketAddress address;
+    private volatile long lastHeardNanos;
+
+    UdpPeer(StatePacker packer, InetSocketAddress address) {
+        this.packer = packer;
+        heardFrom(address);
+    }
+
+    void heardFrom(InetSocketAddress sender) {
+        address = sender;
+        lastHeardNanos = System.nanoTime();
+    }
+
+    InetSocketAddress getAddress() {
+        return address;
+    }
+
+    boolean isLive(long nowNanos, long timeoutNanos) {
+        return nowNanos - lastHeardNanos < timeoutNanos;
+    }
+}
@@ -0,0 +1,28 @@
+package com.zeal.game.network.server.simulation;
+
+/** Simulated state of one player. Only touched from the simulation thread. */
+public class PlayerEntity {
+    private final int id;
+    float x;
+    float y;
+    float moveX;
+    float moveY;
+
+    PlayerEntity(int id, float x, float y) {
+        this.id = id;
+        this.x = x;
+        this.y = y;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+}
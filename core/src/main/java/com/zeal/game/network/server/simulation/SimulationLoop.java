@@ -0,0 +1,192 @@
+package com.zeal.game.network.server.simulation;
+
+import com.zeal.game.network.metrics.LatencyHistogram;
+import com.zeal.game.network.logging.NetworkLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed-timestep simulation running on its own thread, away from Netty's event loops.
+ * <p>
+ * Each tick runs the commands queued by the network threads, then for every registered
+ * {@link World} (one per room) applies its queued inputs, steps it by exactly
+ * {@code 1 / tickRate} seconds and hands the result to that world's {@link TickListener}
+ * (which emits snapshots). Tick durations go into a histogram; ticks that
+ * take longer than their budget are counted as overruns, and if the loop falls more than
+ * {@value #MAX_CATCH_UP_TICKS} ticks behind it drops the backlog instead of spiralling.
+ */
+public class SimulationLoop {
+    private static final NetworkLog logger = NetworkLog.get(SimulationLoop.class);
+    private static final int MAX_CATCH_UP_TICKS = 5;
+
+    /** Called on the simulation thread after every step. */
+    public interface TickListener {
+        void onTick(long tick, World world);
+    }
+
+    private final int tickRate;
+    private final long tickNanos;
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    // simulation thread only; parallel lists
+    private final List<World> worlds = new ArrayList<>();
+    private final List<TickListener> listeners = new ArrayList<>();
+
+    private final LatencyHistogram tickDurations = new LatencyHistogram();
+    private final AtomicLong overrunTicks = new AtomicLong();
+    private final AtomicLong overrunNanos = new AtomicLong();
+    private final AtomicLong droppedTicks = new AtomicLong();
+    private volatile long currentTick;
+
+    private volatile boolean running;
+    // set by stop(); unlike running it is not set before start(), so rooms can be set up first
+    private volatile boolean stopped;
+    private Thread thread;
+
+    public SimulationLoop(int tickRate) {
+        if (tickRate <= 0) throw new IllegalArgumentException("tickRate must be positive: " + tickRate);
+        this.tickRate = tickRate;
+        this.tickNanos = TimeUnit.SECONDS.toNanos(1) / tickRate;
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this::run, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("Simulation started at " + tickRate + " Hz");
+    }
+
+    public synchronized void stop() {
+        running = false;
+        stopped = true;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    /** Start stepping {@code world} from the next tick on; the listener runs after each step. */
+    public void addWorld(World world, TickListener listener) {
+        if (stopped) return;
+        execute(() -> {
+            worlds.add(world);
+            listeners.add(listener);
+        });
+    }
+
+    public void removeWorld(World world) {
+        if (stopped) return;
+        execute(() -> {
+            int index = worlds.indexOf(world);
+            if (index >= 0) {
+                worlds.remove(index);
+                listeners.remove(index);
+            }
+        });
+    }
+
+    /**
+     * Run a task on the simulation thread at the start of the next tick (e.g. world mutations).
+     *
+     * @throws RejectedExecutionException once the loop was stopped, since the task would never
+     *         run; callers handing over resources (buffers) must release them
+     */
+    public void execute(Runnable task) {
+        if (stopped) throw new RejectedExecutionException("Simulation stopped");
+        commands.offer(task);
+    }
+
+    private void run() {
+        float dt = 1f / tickRate;
+        long nextTick = System.nanoTime();
+        while (running) {
+            long start = System.nanoTime();
+            tick(dt);
+            long end = System.nanoTime();
+            long duration = end - start;
+            tickDurations.record(duration);
+            if (duration > tickNanos) {
+                overrunTicks.incrementAndGet();
+                overrunNanos.addAndGet(duration - tickNanos);
+            }
+
+            nextTick += tickNanos;
+            long behind = end - nextTick;
+            if (behind > MAX_CATCH_UP_TICKS * tickNanos) {
+                long skipped = behind / tickNanos;
+                droppedTicks.addAndGet(skipped);
+                logger.warning("Simulation fell " + skipped + " ticks behind; skipping ahead");
+                nextTick = end;
+            }
+            // park until the next tick is due; when behind we loop straight away to catch up
+            long wait;
+            while (running && (wait = nextTick - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+    }
+
+    private void tick(float dt) {
+        Runnable command;
+        while ((command = commands.poll()) != null) {
+            // one broken command must not take the thread, and with it every room, down
+            try {
+                command.run();
+            } catch (RuntimeException e) {
+                logger.warning("Simulation command failed: " + e.getMessage());
+            }
+        }
+        long tick = ++currentTick;
+        for (int i = 0; i < worlds.size(); i++) {
+            World world = worlds.get(i);
+            world.applyInputs();
+            world.step(dt);
+            try {
+                listeners.get(i).onTick(tick, world);
+            } catch (RuntimeException e) {
+                logger.warning("Tick listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /** Wall time spent per tick (drain + step + snapshot), in nanoseconds. */
+    public LatencyHistogram getTickDurations() {
+        return tickDurations;
+    }
+
+    /** Number of ticks that took longer than the tick budget. */
+    public long getOverrunTicks() {
+        return overrunTicks.get();
+    }
+
+    /** Total time by which overrunning ticks exceeded the budget, in nanoseconds. */
+    public long getOverrunNanos() {
+        return overrunNanos.get();
+    }
+
+    /** Ticks skipped because the loop fell too far behind to catch up. */
+    public long getDroppedTicks() {
+        return droppedTicks.get();
+    }
+}
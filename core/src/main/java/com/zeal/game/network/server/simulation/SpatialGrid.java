@@ -0,0 +1,153 @@
+package com.zeal.game.network.server.simulation;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.LongMap;
+
+import java.util.Arrays;
+
+/**
+ * Uniform spatial hash grid over entity positions. Cells are keyed by their integer
+ * coordinates packed into a long, so the grid is unbounded and only occupied cells cost memory.
+ * Moving an entity within its cell is a field update; crossing a cell boundary is an O(1)
+ * swap-remove plus append. Radius queries only visit the cells overlapping the query box.
+ * <p>
+ * Cells are kept once created to avoid churn; the game world is bounded so their number is too.
+ * Not thread-safe.
+ */
+public class SpatialGrid {
+    private final float cellSize;
+    private final LongMap<Cell> cells = new LongMap<>();
+    private final IntMap<Cell> cellOf = new IntMap<>();
+    private final IntIntMap slotOf = new IntIntMap();
+
+    public SpatialGrid(float cellSize) {
+        if (cellSize <= 0) throw new IllegalArgumentException("cellSize must be positive: " + cellSize);
+        this.cellSize = cellSize;
+    }
+
+    public void insert(int id, float x, float y) {
+        if (cellOf.containsKey(id)) {
+            move(id, x, y);
+            return;
+        }
+        addToCell(id, x, y, cellKey(cellCoord(x), cellCoord(y)));
+    }
+
+    public void move(int id, float x, float y) {
+        Cell cell = cellOf.get(id);
+        if (cell == null) {
+            insert(id, x, y);
+            return;
+        }
+        long key = cellKey(cellCoord(x), cellCoord(y));
+        if (cell.key == key) {
+            int slot = slotOf.get(id, -1);
+            cell.xs[slot] = x;
+            cell.ys[slot] = y;
+            return;
+        }
+        removeFromCell(id, cell);
+        addToCell(id, x, y, key);
+    }
+
+    public void remove(int id) {
+        Cell cell = cellOf.remove(id);
+        if (cell != null) {
+            removeFromCell(id, cell);
+        }
+    }
+
+    public int size() {
+        return cellOf.size;
+    }
+
+    /** Appends the ids of all entities within {@code radius} of (x, y) to {@code out}; returns how many were added. */
+    public int query(float x, float y, float radius, IntArray out) {
+        int before = out.size;
+        float radiusSq = radius * radius;
+        int minX = cellCoord(x - radius);
+        int maxX = cellCoord(x + radius);
+        int minY = cellCoord(y - radius);
+        int maxY = cellCoord(y + radius);
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cy = minY; cy <= maxY; cy++) {
+                Cell cell = cells.get(cellKey(cx, cy));
+                if (cell == null) continue;
+                for (int i = 0; i < cell.size; i++) {
+                    float dx = cell.xs[i] - x;
+                    float dy = cell.ys[i] - y;
+                    if (dx * dx + dy * dy <= radiusSq) {
+                        out.add(cell.ids[i]);
+                    }
+                }
+            }
+        }
+        return out.size - before;
+    }
+
+    private void addToCell(int id, float x, float y, long key) {
+        Cell cell = cells.get(key);
+        if (cell == null) {
+            cell = new Cell(key);
+            cells.put(key, cell);
+        }
+        slotOf.put(id, cell.add(id, x, y));
+        cellOf.put(id, cell);
+    }
+
+    private void removeFromCell(int id, Cell cell) {
+        int slot = slotOf.remove(id, -1);
+        if (slot < 0) return;
+        int movedId = cell.removeAt(slot);
+        if (movedId != id) {
+            // the cell's last entry was swapped into the freed slot
+            slotOf.put(movedId, slot);
+        }
+    }
+
+    private int cellCoord(float value) {
+        return (int) Math.floor(value / cellSize);
+    }
+
+    private static long cellKey(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    private static final class Cell {
+        final long key;
+        int[] ids = new int[8];
+        float[] xs = new float[8];
+        float[] ys = new float[8];
+        int size;
+
+        Cell(long key) {
+            this.key = key;
+        }
+
+        int add(int id, float x, float y) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                xs = Arrays.copyOf(xs, capacity);
+                ys = Arrays.copyOf(ys, capacity);
+            }
+            ids[size] = id;
+            xs[size] = x;
+            ys[size] = y;
+            return size++;
+        }
+
+        /** Swap-removes the slot and returns the id now stored there (the removed id if it was last). */
+        int removeAt(int slot) {
+            int removedId = ids[slot];
+            int last = --size;
+            if (slot == last) return removedId;
+            ids[slot] = ids[last];
+            xs[slot] = xs[last];
+            ys[slot] = ys[last];
+            return ids[slot];
+        }
+    }
+}
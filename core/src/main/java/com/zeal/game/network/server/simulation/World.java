@@ -0,0 +1,142 @@
+package com.zeal.game.network.server.simulation;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.zeal.game.network.PlayerInputMessage;
+import com.zeal.game.network.WorldSnapshotMessage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Server-side game state of one room. Not thread-safe: only the {@link SimulationLoop} thread
+ * reads or mutates it, with the exception of {@link #submitInput}.
+ */
+public class World {
+    public static final float SIZE = 1000f;
+    public static final float PLAYER_SPEED = 150f; // units per second
+
+    private final IntMap<PlayerEntity> players = new IntMap<>();
+    // sorted by id (snapshot deltas merge on it); kept alongside the map to avoid iterator garbage
+    private final List<PlayerEntity> playerList = new ArrayList<>();
+    // positions indexed for area-of-interest queries
+    private final SpatialGrid grid;
+    private final IntArray queryScratch = new IntArray();
+    // filled by network threads, drained by the simulation thread at the start of each tick
+    private final Queue<PlayerInputMessage> inputs = new ConcurrentLinkedQueue<>();
+
+    /** @param cellSize spatial grid cell size; the interest radius is a good choice */
+    public World(float cellSize) {
+        this.grid = new SpatialGrid(cellSize);
+    }
+
+    public void addPlayer(int playerId) {
+        if (players.containsKey(playerId)) return;
+        PlayerEntity entity = new PlayerEntity(playerId, SIZE / 2f, SIZE / 2f);
+        players.put(playerId, entity);
+        grid.insert(playerId, entity.x, entity.y);
+        int index = playerList.size();
+        while (index > 0 && playerList.get(index - 1).getId() > playerId) index--;
+        playerList.add(index, entity);
+    }
+
+    public void removePlayer(int playerId) {
+        PlayerEntity entity = players.remove(playerId);
+        if (entity != null) {
+            playerList.remove(entity);
+            grid.remove(playerId);
+        }
+    }
+
+    /** Queue an input from any thread; applied at the start of the next tick. */
+    public void submitInput(PlayerInputMessage input) {
+        inputs.offer(input);
+    }
+
+    void applyInputs() {
+        PlayerInputMessage input;
+        while ((input = inputs.poll()) != null) {
+            PlayerEntity entity = players.get(input.getPlayerId());
+            if (entity == null) continue;
+            entity.moveX = input.getMoveX();
+            entity.moveY = input.getMoveY();
+        }
+    }
+
+    /** Advances every entity by one fixed step. */
+    void step(float dt) {
+        for (int i = 0; i < playerList.size(); i++) {
+            PlayerEntity entity = playerList.get(i);
+            if (entity.moveX == 0f && entity.moveY == 0f) continue;
+            entity.x = clamp(entity.x + entity.moveX * PLAYER_SPEED * dt);
+            entity.y = clamp(entity.y + entity.moveY * PLAYER_SPEED * dt);
+            grid.move(entity.getId(), entity.x, entity.y);
+        }
+    }
+
+    private static float clamp(float value) {
+        return Math.max(0f, Math.min(SIZE, value));
+    }
+
+    public PlayerEntity getPlayer(int playerId) {
+        return players.get(playerId);
+    }
+
+    public List<PlayerEntity> getPlayers() {
+        return Collections.unmodifiableList(playerList);
+    }
+
+    public int getPlayerCount() {
+        return playerList.size();
+    }
+
+    /** Full snapshot of the current state, entities in ascending id order. */
+    public WorldSnapshotMessage snapshot(long tick) {
+        int count = playerList.size();
+        int[] ids = new int[count];
+        float[] xs = new float[count];
+        float[] ys = new float[count];
+        for (int i = 0; i < count; i++) {
+            PlayerEntity entity = playerList.get(i);
+            ids[i] = entity.getId();
+            xs[i] = entity.x;
+            ys[i] = entity.y;
+        }
+        return new WorldSnapshotMessage(tick, ids, xs, ys);
+    }
+
+    /**
+     * Appends the ids of players within {@code radius} of (x, y) to {@code out}, unordered.
+     */
+    public int queryNearby(float x, float y, float radius, IntArray out) {
+        return grid.query(x, y, radius, out);
+    }
+
+    /**
+     * Snapshot of what {@code viewerId} can see: the players within {@code radius} of it,
+     * including itself, in ascending id order. Empty if the viewer has not spawned yet.
+     */
+    public WorldSnapshotMessage snapshotAround(long tick, int viewerId, float radius) {
+        PlayerEntity viewer = players.get(viewerId);
+        IntArray visible = queryScratch;
+        visible.clear();
+        if (viewer != null) {
+            grid.query(viewer.x, viewer.y, radius, visible);
+            visible.sort();
+        }
+        int count = visible.size;
+        int[] ids = new int[count];
+        float[] xs = new float[count];
+        float[] ys = new float[count];
+        for (int i = 0; i < count; i++) {
+            PlayerEntity entity = players.get(visible.get(i));
+            ids[i] = entity.getId();
+            xs[i] = entity.x;
+            ys[i] = entity.y;
+        }
+        return new WorldSnapshotMessage(tick, ids, xs, ys);
+    }
+}
@@ -0,0 +1,134 @@
+package com.zeal.game.network.udp;
+
+import com.zeal.game.network.NetworkConstants;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.socket.DatagramPacket;
+
+import java.net.InetSocketAddress;
+
+import static com.zeal.game.network.codec.WireFormat.*;
+
+/**
+ * Sending half of the unreliable state channel. Frames (messages encoded as for TCP) are
+ * numbered and packed into as few datagrams as the MTU allows:
+ * <pre>
+ * [UDP_STATE:byte][sessionToken:long][count:ubyte]{[sequence:varlong][length:varint][frame]}
+ * </pre>
+ * With redundancy {@code r} every datagram also repeats up to {@code r} of the frames sent
+ * before it, ahead of the new ones, so a single lost datagram is usually made up for by the
+ * next one without a round trip.
+ * <p>
+ * Frames are copied into reusable slots on {@link #offer}; the caller keeps its buffer and
+ * nothing here needs releasing. Not thread-safe: each packer has one owning thread.
+ */
+public final class StatePacker {
+    /** Frames held between flushes. */
+    public static final int MAX_PENDING = 16;
+    /** Upper bound for the redundancy setting; keeps the entry count within one byte. */
+    public static final int MAX_REDUNDANCY = 8;
+
+    private static final int PACKET_HEADER_BYTES = NetworkConstants.UDP_HEADER_BYTES + 1;
+    // worst-case sequence and length prefixes of one entry
+    private static final int ENTRY_OVERHEAD = 10 + 5;
+
+    private final long token;
+    private final int maxPacketBytes;
+    private final int redundancy;
+    // ring holding the last `redundancy` sent frames followed by the pending ones
+    private final byte[][] slots;
+    private final int[] lengths;
+    private final long[] sequences;
+    private int head; // slot of the oldest frame kept
+    private int sentCount;
+    private int pendingCount;
+    private long nextSequence = 1;
+
+    public StatePacker(long token, int maxPacketBytes, int redundancy) {
+        if (maxPacketBytes <= PACKET_HEADER_BYTES + ENTRY_OVERHEAD) {
+            throw new IllegalArgumentException("MTU too small: " + maxPacketBytes);
+        }
+        this.token = token;
+        this.maxPacketBytes = maxPacketBytes;
+        this.redundancy = Math.max(0, Math.min(MAX_REDUNDANCY, redundancy));
+        int capacity = this.redundancy + MAX_PENDING;
+        this.slots = new byte[capacity][];
+        this.lengths = new int[capacity];
+        this.sequences = new long[capacity];
+    }
+
+    /** Whether a frame of this size fits a datagram at all; larger ones have to go over TCP. */
+    public boolean fits(int frameBytes) {
+        return frameBytes <= maxPacketBytes - PACKET_HEADER_BYTES - ENTRY_OVERHEAD;
+    }
+
+    public boolean isFull() {
+        return pendingCount == MAX_PENDING;
+    }
+
+    public boolean hasPending() {
+        return pendingCount > 0;
+    }
+
+    /** Queues a copy of {@code frame}; false if it is too large or the packer must be flushed first. */
+    public boolean offer(ByteBuf frame) {
+        int length = frame.readableBytes();
+        if (!fits(length) || isFull()) return false;
+        int slot = slot(sentCount + pendingCount);
+        byte[] bytes = slots[slot];
+        if (bytes == null || bytes.length < length) {
+            // slots only grow, so steady-state traffic reuses them
+            bytes = slots[slot] = new byte[Math.max(length, 64)];
+        }
+        frame.getBytes(frame.readerIndex(), bytes, 0, length);
+        lengths[slot] = length;
+        sequences[slot] = nextSequence++;
+        pendingCount++;
+        return true;
+    }
+
+    /** Writes the pending frames to {@code channel} as datagrams for {@code recipient}; does not flush the channel. */
+    public void flush(Channel channel, InetSocketAddress recipient) {
+        int next = sentCount;
+        int end = sentCount + pendingCount;
+        while (next < end) {
+            int budget = maxPacketBytes - PACKET_HEADER_BYTES;
+            int first = next;
+            // every pending frame fits an empty packet, so each round takes at least one
+            while (next < end && entrySize(slot(next)) <= budget) {
+                budget -= entrySize(slot(next));
+                next++;
+            }
+            int repeated = 0;
+            while (repeated < redundancy && first - repeated > 0 && entrySize(slot(first - repeated - 1)) <= budget) {
+                budget -= entrySize(slot(first - repeated - 1));
+                repeated++;
+            }
+            ByteBuf packet = channel.alloc().ioBuffer(maxPacketBytes - budget);
+            packet.writeByte(NetworkConstants.UDP_STATE);
+            packet.writeLong(token);
+            packet.writeByte(repeated + next - first);
+            // oldest first, so the receiver can deliver in order
+            for (int i = first - repeated; i < next; i++) {
+                int slot = slot(i);
+                writeVarLong(packet, sequences[slot]);
+                writeVarInt(packet, lengths[slot]);
+                packet.writeBytes(slots[slot], 0, lengths[slot]);
+            }
+            channel.write(new DatagramPacket(packet, recipient), channel.voidPromise());
+        }
+        // everything went out; keep only the newest frames for repetition
+        int kept = Math.min(redundancy, end);
+        head = slot(end - kept);
+        sentCount = kept;
+        pendingCount = 0;
+    }
+
+    private int slot(int index) {
+        return (head + index) % slots.length;
+    }
+
+    private int entrySize(int slot) {
+        return varLongSize(sequences[slot]) + varIntSize(lengths[slot]) + lengths[slot];
+    }
+}
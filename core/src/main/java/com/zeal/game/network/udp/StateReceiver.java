@@ -0,0 +1,39 @@
+package com.zeal.game.network.udp;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.CorruptedFrameException;
+
+import java.util.List;
+
+import static com.zeal.game.network.codec.WireFormat.*;
+
+/**
+ * Receiving half of the unreliable state channel: unpacks the entries of a datagram written
+ * by {@link StatePacker} and keeps only frames newer than anything delivered so far. Repeated
+ * copies and late, reordered datagrams are dropped, so the consumer sees every frame at most
+ * once and in order, with a gap only where a frame and all its repeats were lost.
+ * Not thread-safe.
+ */
+public final class StateReceiver {
+    private long delivered;
+
+    /**
+     * Reads the entries following the packet header and adds the new frames to {@code out}, as
+     * slices that are valid while {@code in} is.
+     */
+    public void read(ByteBuf in, List<ByteBuf> out) {
+        int count = in.readUnsignedByte();
+        for (int i = 0; i < count; i++) {
+            long sequence = readVarLong(in);
+            int length = readVarInt(in);
+            if (length < 0 || length > in.readableBytes()) {
+                throw new CorruptedFrameException("state frame length " + length + " exceeds datagram");
+            }
+            ByteBuf frame = in.readSlice(length);
+            if (sequence > delivered) {
+                delivered = sequence;
+                out.add(frame);
+            }
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.zeal.game.ui;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.InputEvent;
+import com.badlogic.gdx.scenes.scene2d.InputListener;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.scenes.scene2d.ui.WidgetGroup;
+import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.Pools;
+
+/**
+ * Virtualized chat history. Lines live in a fixed-size ring of plain strings; only the rows that
+ * fit the widget's height have a {@link Label}, taken from a small pool and re-bound to other
+ * lines as the view scrolls or new lines arrive. A frame lays out at most one screenful of rows,
+ * however long the history or however fast lines come in.
+ * <p>
+ * Long lines wrap, so rows differ in height. Each line's wrapped height is measured once with a
+ * pooled {@link GlyphLayout} at the current width (all of them again only when the width
+ * changes) and kept as a running total, so the rows in view are found by binary search on those
+ * prefix sums instead of a walk over the history. The mouse wheel scrolls; the view follows new
+ * lines while scrolled to the bottom and stays on the same lines otherwise.
+ */
+public class ChatListView extends WidgetGroup {
+    private static final float ROW_PAD = 2f;
+
+    // ring of lines, oldest at head
+    private final String[] senders;
+    private final String[] contents;
+    // per slot: wrapped height (with padding) and running total of heights up to and including it
+    private final float[] heights;
+    private final double[] ends;
+    private int head;
+    private int size;
+
+    private final Label.LabelStyle style;
+    private final Pool<Label> labelPool;
+    // labels currently shown, bottom row first
+    private final Array<Label> rows = new Array<>();
+    private final StringBuilder text = new StringBuilder();
+    // width the cached heights were measured at; negative until the first layout
+    private float measuredWidth = -1;
+    // how many lines the view is scrolled up from the newest; 0 follows new lines
+    private int scrollLines;
+    // a line arrived or the view scrolled: re-bind the visible rows on the next layout
+    private boolean rebind;
+
+    public ChatListView(Skin skin, int capacity) {
+        this.senders = new String[capacity];
+        this.contents = new String[capacity];
+        this.heights = new float[capacity];
+        this.ends = new double[capacity];
+        this.style = skin.get(Label.LabelStyle.class);
+        this.labelPool = new Pool<Label>() {
+            @Override
+            protected Label newObject() {
+                Label label = new Label("", style);
+                label.setWrap(true);
+                label.setAlignment(Align.left);
+                return label;
+            }
+        };
+        addListener(new InputListener() {
+            // the stage only sends wheel events to its scroll focus
+            @Override
+            public void enter(InputEvent event, float x, float y, int pointer, Actor fromActor) {
+                if (pointer == -1 && getStage() != null) getStage().setScrollFocus(ChatListView.this);
+            }
+
+            @Override
+            public void exit(InputEvent event, float x, float y, int pointer, Actor toActor) {
+                if (pointer != -1 || getStage() == null || isAscendantOf(toActor)) return;
+                if (getStage().getScrollFocus() == ChatListView.this) getStage().setScrollFocus(null);
+            }
+
+            @Override
+            public boolean scrolled(InputEvent event, float x, float y, float amountX, float amountY) {
+                scrollBy((int) -Math.signum(amountY) * 3);
+                return true;
+            }
+        });
+    }
+
+    /** Appends a line, dropping the oldest once the history is full. */
+    public void add(String sender, String content) {
+        int capacity = senders.length;
+        int slot = (head + size) % capacity;
+        double previousEnd = size > 0 ? ends[slot(size - 1)] : 0;
+        senders[slot] = sender;
+        contents[slot] = content;
+        if (size == capacity) {
+            head = (head + 1) % capacity;
+        } else {
+            size++;
+        }
+        if (measuredWidth >= 0) {
+            // before the first layout there is no width to wrap at; layout() measures everything then
+            GlyphLayout glyphs = Pools.obtain(GlyphLayout.class);
+            heights[slot] = measure(glyphs, slot, measuredWidth);
+            Pools.free(glyphs);
+            ends[slot] = previousEnd + heights[slot];
+        }
+        if (scrollLines > 0) {
+            // keep the same lines in view while the player reads back
+            scrollLines++;
+        }
+        rebind = true;
+        invalidate();
+    }
+
+    /** Positive scrolls back towards older lines. */
+    public void scrollBy(int lines) {
+        int scroll = Math.max(0, Math.min(scrollLines + lines, maxScroll()));
+        if (scroll == scrollLines) return;
+        scrollLines = scroll;
+        rebind = true;
+        invalidate();
+    }
+
+    private int slot(int index) {
+        return (head + index) % senders.length;
+    }
+
+    /** Distance from the top of the oldest line to the bottom of line {@code index}. */
+    private double end(int index) {
+        return ends[slot(index)] - (ends[head] - heights[head]);
+    }
+
+    /** Smallest line index whose bottom lies below {@code y}, measured like {@link #end}. */
+    private int firstEndingAfter(double y) {
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (end(mid) > y) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /** Scrolling stops once the oldest line is at the top of the view. */
+    private int maxScroll() {
+        if (size == 0 || measuredWidth < 0) return 0;
+        // the lowest bottom line that still shows everything above it
+        int bottom = Math.max(0, firstEndingAfter(getHeight()) - 1);
+        if (end(size - 1) <= getHeight()) bottom = size - 1;
+        return size - 1 - bottom;
+    }
+
+    private float measure(GlyphLayout glyphs, int slot, float width) {
+        bindText(slot);
+        glyphs.setText(style.font, text, 0, text.length(), style.font.getColor(), width, Align.left, true, null);
+        return glyphs.height + ROW_PAD;
+    }
+
+    private void bindText(int slot) {
+        // same text as ChatMessage.toString(), built without String.format
+        text.setLength(0);
+        text.append('[').append(senders[slot]).append("]: ").append(contents[slot]);
+    }
+
+    /** Re-measures every line at a new width and rebuilds the running totals. */
+    private void remeasure(float width) {
+        measuredWidth = width;
+        GlyphLayout glyphs = Pools.obtain(GlyphLayout.class);
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            int slot = slot(i);
+            heights[slot] = measure(glyphs, slot, width);
+            total += heights[slot];
+            ends[slot] = total;
+        }
+        Pools.free(glyphs);
+        rebind = true;
+    }
+
+    @Override
+    public void layout() {
+        float width = getWidth();
+        if (width <= 0) {
+            // not sized yet; wrapping at zero width would measure every glyph as a line
+            freeRows(0);
+            return;
+        }
+        if (width != measuredWidth) {
+            remeasure(width);
+        }
+        scrollLines = Math.min(scrollLines, maxScroll());
+        if (size == 0) {
+            freeRows(0);
+            return;
+        }
+        // bottom row shows the newest line not scrolled past; rows above it while they fit, but
+        // always the bottom one, even if it is taller than the view (draw() clips it)
+        int bottom = size - 1 - scrollLines;
+        double bottomEnd = end(bottom);
+        int top = Math.min(bottom, firstEndingAfter(bottomEnd - getHeight()));
+        if (end(top) - heights[slot(top)] < bottomEnd - getHeight() && top < bottom) top++;
+        int wanted = bottom - top + 1;
+        if (wanted != rows.size) {
+            freeRows(wanted);
+            while (rows.size < wanted) {
+                Label label = labelPool.obtain();
+                rows.add(label);
+                addActor(label);
+            }
+            rebind = true;
+        }
+        for (int i = 0; i < rows.size; i++) {
+            Label label = rows.get(i);
+            int index = bottom - i;
+            int slot = slot(index);
+            if (rebind) {
+                bindText(slot);
+                label.setText(text);
+            }
+            float height = heights[slot];
+            label.setBounds(0, (float) (bottomEnd - end(index)), width, height);
+        }
+        rebind = false;
+    }
+
+    private void freeRows(int keep) {
+        while (rows.size > keep) {
+            Label label = rows.pop();
+            removeActor(label);
+            labelPool.free(label);
+        }
+    }
+
+    @Override
+    public void draw(Batch batch, float parentAlpha) {
+        // a line taller than the view would otherwise spill over the widgets above it
+        batch.flush();
+        if (clipBegin()) {
+            super.draw(batch, parentAlpha);
+            batch.flush();
+            clipEnd();
+        }
+    }
+}
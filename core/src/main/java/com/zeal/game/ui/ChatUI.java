@@ -5,24 +5,21 @@ import com.badlogic.gdx.Input.Keys;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
-import com.badlogic.gdx.utils.Array;
+import com.zeal.game.debug.DebugFlags;
 import com.zeal.game.network.ChatMessage;
 import com.zeal.game.network.client.GameClient;
 
 public class ChatUI extends Actor {
     private final TextField chatInput;
-    private final ScrollPane chatScrollPane;
+    private final ChatListView chatLog;
     private final Table chatTable;
-    private final Array<Label> messages;
     private final GameClient gameClient;
-    private final Skin skin;
     private boolean isVisible;
-    private static final int MAX_MESSAGES = 50;
+    // lines kept for scrolling back; only the visible ones have actors
+    private static final int HISTORY_LINES = 2000;
 
     public ChatUI(Stage stage, Skin skin, GameClient gameClient) {
-        this.skin = skin;
         this.gameClient = gameClient;
-        this.messages = new Array<>();
         
         // Set up chat table
         chatTable = new Table();
@@ -32,22 +29,17 @@ public class ChatUI extends Actor {
         chatTable.setDebug(true); // Temporary: show table bounds
         
         // Create message area
-        Table messageArea = new Table();
-        chatScrollPane = new ScrollPane(messageArea, skin);
-        chatScrollPane.setFadeScrollBars(false);
+        chatLog = new ChatListView(skin, HISTORY_LINES);
         
         // Create chat input
         chatInput = new TextField("", skin);
         chatInput.setMessageText("Press ENTER to send, ESC to close");
         
         // Layout
-        chatTable.add(chatScrollPane).expand().fill().pad(5).row();
+        chatTable.add(chatLog).expand().fill().pad(5).row();
         chatTable.add(chatInput).expandX().fillX().pad(5);
         
         stage.addActor(chatTable);
-        
-        // Set up network listener
-        gameClient.setMessageListener(this::addMessage);
     }
 
     public void toggleVisibility() {
@@ -92,24 +84,13 @@ public class ChatUI extends Actor {
         }
     }
 
+    /** Render thread only; the screen feeds this from its {@link com.zeal.game.network.client.ChatInbox}. */
     public void addMessage(ChatMessage chatMessage) {
-        Label messageLabel = new Label(chatMessage.toString(), skin);
-        messageLabel.setWrap(true);
-        
-        Table messageArea = (Table) chatScrollPane.getActor();
-        messageArea.add(messageLabel).expandX().fillX().pad(2).row();
-        
-        messages.add(messageLabel);
-        if (messages.size > MAX_MESSAGES) {
-            messages.first().remove();
-            messages.removeIndex(0);
+        // the view lays out once per frame, whatever number of lines came in
+        chatLog.add(chatMessage.getSender(), chatMessage.getContent());
+        if (DebugFlags.VERBOSE_CHAT) {
+            Gdx.app.log("ChatUI", "Message added: " + chatMessage.toString());
         }
-        
-        chatScrollPane.layout();
-        chatScrollPane.scrollTo(0, 0, 0, 0);
-        
-        // Debug message to confirm message added
-        Gdx.app.log("ChatUI", "Message added: " + chatMessage.toString());
     }
 
     @Override
@@ -4,6 +4,8 @@ import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
+import com.zeal.game.assets.AssetHandle;
+import com.zeal.game.assets.Assets;
 import com.zeal.game.settings.Settings;
 
 /**
@@ -11,19 +13,11 @@ import com.zeal.game.settings.Settings;
  */
 public final class PauseUI {
     private PauseUI() {}
-    final static Skin skin = loadSkin();
-    static Dialog dialog = new Dialog("Paused", skin)    ;
+    // the open pause dialog, if any; it holds a skin handle until it leaves the stage
+    static Dialog dialog;
 
     // UIManager will manage which dialogs are visible; PauseUI delegates to it.
 
-    private static Skin loadSkin() {
-        try {
-            return new Skin(com.badlogic.gdx.Gdx.files.internal("ui/uiskin.json"));
-        } catch (Exception e) {
-            try { return new Skin(); } catch (Exception ex) { return new Skin(); }
-        }
-    }
-
     /**
      * Show the pause dialog on the given stage.
      * @param stage stage to attach dialogs to
@@ -33,12 +27,23 @@ public final class PauseUI {
     public static void show(Stage stage, Settings settings, Runnable onMainMenu) {
         com.badlogic.gdx.Gdx.app.log("PauseUI", "show() called - creating pause dialog");
 
+        final AssetHandle<Skin> skinHandle = Assets.acquireSkin();
+        final Skin skin = skinHandle.get();
         dialog = new Dialog("Paused", skin) {
             @Override
             public void hide() {
                 super.hide();
                 UIManager.dialogHidden(this);
             }
+
+            @Override
+            public boolean remove() {
+                // dropped from the stage for good (after the fade-out): give back the skin
+                boolean removed = super.remove();
+                skinHandle.dispose();
+                if (dialog == this) dialog = null;
+                return removed;
+            }
         };
         dialog.getContentTable().pad(10);
         dialog.getContentTable().add(new Label("Game paused", skin)).row();
@@ -3,6 +3,8 @@ package com.zeal.game.ui;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
+import com.zeal.game.assets.AssetHandle;
+import com.zeal.game.assets.Assets;
 import com.zeal.game.settings.Settings;
 
 /**
@@ -16,7 +18,8 @@ public final class SettingsUI {
     /** Show settings when the player is on the main menu. Allows changing username. */
     public static void showForMainMenu(Stage stage, Settings settings, Runnable onSaved) {
         if (stage == null || settings == null) return;
-        final Skin skin = new Skin(com.badlogic.gdx.Gdx.files.internal("ui/uiskin.json"));
+        final AssetHandle<Skin> skinHandle = Assets.acquireSkin();
+        final Skin skin = skinHandle.get();
 
         Dialog d = new Dialog("Settings", skin) {
             @Override
@@ -24,6 +27,14 @@ public final class SettingsUI {
                 super.hide();
                 UIManager.dialogHidden(this);
             }
+
+            @Override
+            public boolean remove() {
+                // dropped from the stage for good (after the fade-out): give back the skin
+                boolean removed = super.remove();
+                skinHandle.dispose();
+                return removed;
+            }
         };
 
         final TextField usernameField = new TextField(settings.getUsername(), skin);
@@ -57,7 +68,8 @@ public final class SettingsUI {
     /** Show settings when in-game. Username is not editable here; other settings can be added. */
     public static void showForInGame(Stage stage, Settings settings) {
         if (stage == null || settings == null) return;
-        final Skin skin = new Skin(com.badlogic.gdx.Gdx.files.internal("ui/uiskin.json"));
+        final AssetHandle<Skin> skinHandle = Assets.acquireSkin();
+        final Skin skin = skinHandle.get();
 
         Dialog d = new Dialog("Settings", skin) {
             @Override
@@ -65,6 +77,14 @@ public final class SettingsUI {
                 super.hide();
                 UIManager.dialogHidden(this);
             }
+
+            @Override
+            public boolean remove() {
+                // dropped from the stage for good (after the fade-out): give back the skin
+                boolean removed = super.remove();
+                skinHandle.dispose();
+                return removed;
+            }
         };
 
         // For now show username as read-only and a placeholder for other settings
@@ -0,0 +1,133 @@
+package com.zeal.game.network.client;
+
+import com.zeal.game.network.ChatMessage;
+import com.zeal.game.network.HelloMessage;
+import com.zeal.game.network.NetworkMessage;
+import com.zeal.game.network.ResumeMessage;
+import com.zeal.game.network.TransportType;
+import com.zeal.game.network.WelcomeMessage;
+import com.zeal.game.network.codec.GameMessageDecoder;
+import com.zeal.game.network.codec.GameMessageEncoder;
+import com.zeal.game.network.codec.ProtocolSession;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Client side of chat resume: against a stub server that never echoes unless told to, lines
+ * without an echo are sent again after a resumed WELCOME, with their original sender sequence.
+ */
+class GameClientResendTest {
+    private static final int PLAYER_ID = 7;
+    private static final long TOKEN = 0x5eed;
+
+    private final BlockingQueue<ChatMessage> received = new LinkedBlockingQueue<>();
+    private final BlockingQueue<ResumeMessage> resumes = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Channel> accepted = new LinkedBlockingQueue<>();
+    private EventLoopGroup serverGroup;
+    private Channel serverChannel;
+    private GameClient client;
+
+    @BeforeEach
+    void startStubServer() {
+        serverGroup = new NioEventLoopGroup(1);
+        serverChannel = new ServerBootstrap()
+                .group(serverGroup)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ProtocolSession.install(ch, System.currentTimeMillis());
+                        ch.pipeline().addLast(
+                                new LengthFieldBasedFrameDecoder(1 << 16, 0, 4, 0, 4),
+                                new GameMessageDecoder(),
+                                new StubHandler(),
+                                new LengthFieldPrepender(4),
+                                new GameMessageEncoder());
+                        accepted.add(ch);
+                    }
+                })
+                .bind("127.0.0.1", 0).syncUninterruptibly().channel();
+    }
+
+    @AfterEach
+    void stop() {
+        if (client != null) client.disconnect();
+        serverChannel.close().syncUninterruptibly();
+        serverGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+    }
+
+    @Test
+    void unacknowledgedLinesAreResentAfterResume() throws Exception {
+        int port = ((InetSocketAddress) serverChannel.localAddress()).getPort();
+        client = new GameClient("127.0.0.1", port, "tester");
+        client.setTransport(TransportType.NIO);
+        client.setUdpEnabled(false);
+        client.setCompressionEnabled(false);
+        CountDownLatch echoed = new CountDownLatch(1);
+        client.setMessageListener(message -> echoed.countDown());
+        client.connect().get(5, TimeUnit.SECONDS);
+        Channel first = accepted.take();
+
+        client.sendMessage("one");
+        client.sendMessage("two");
+        ChatMessage one = poll(received);
+        ChatMessage two = poll(received);
+        assertEquals(1, one.getSenderSequence());
+        assertEquals(2, two.getSenderSequence());
+
+        // only "one" makes it back before the connection drops
+        ChatMessage echo = new ChatMessage(PLAYER_ID, "tester", one.getContent());
+        echo.setSenderSequence(one.getSenderSequence());
+        first.writeAndFlush(echo).syncUninterruptibly();
+        assertTrue(echoed.await(5, TimeUnit.SECONDS));
+        first.close().syncUninterruptibly();
+
+        ResumeMessage resume = poll(resumes);
+        assertEquals(TOKEN, resume.getSessionToken());
+        ChatMessage resent = poll(received);
+        assertEquals("two", resent.getContent());
+        assertEquals(2, resent.getSenderSequence());
+        assertNull(received.poll(300, TimeUnit.MILLISECONDS), "acknowledged line was sent again");
+    }
+
+    private static <T> T poll(BlockingQueue<T> queue) throws InterruptedException {
+        T value = queue.poll(5, TimeUnit.SECONDS);
+        assertNotNull(value, "timed out");
+        return value;
+    }
+
+    /** Answers HELLO and RESUME with the same session; records chat lines without relaying them. */
+    private final class StubHandler extends SimpleChannelInboundHandler<NetworkMessage> {
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, NetworkMessage msg) {
+            if (msg instanceof HelloMessage) {
+                ctx.channel().writeAndFlush(new WelcomeMessage(PLAYER_ID, TOKEN));
+            } else if (msg instanceof ResumeMessage) {
+                resumes.add((ResumeMessage) msg);
+                ctx.channel().writeAndFlush(new WelcomeMessage(PLAYER_ID, TOKEN));
+            } else if (msg instanceof ChatMessage) {
+                received.add((ChatMessage) msg);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.zeal.game.network.server;
+
+import com.zeal.game.network.ChatMessage;
+import com.zeal.game.network.HelloMessage;
+import com.zeal.game.network.NetworkConstants;
+import com.zeal.game.network.NetworkMessage;
+import com.zeal.game.network.ResumeMessage;
+import com.zeal.game.network.TransportType;
+import com.zeal.game.network.WelcomeMessage;
+import com.zeal.game.network.client.GameClient;
+import com.zeal.game.network.codec.GameMessageDecoder;
+import com.zeal.game.network.codec.GameMessageEncoder;
+import com.zeal.game.network.codec.ProtocolSession;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Server side of chat resume, on the wire: a line a client sends again on the resumed session
+ * with the sender sequence it already used is relayed to the room only once.
+ */
+class ChatResumeDedupTest {
+    private GameServer server;
+    private EventLoopGroup group;
+    private GameClient observer;
+
+    @BeforeEach
+    void start() {
+        server = new GameServer(0, new ServerConfig()
+                .setTransport(TransportType.NIO)
+                .setWorkerThreads(1)
+                .setTickRate(0)
+                .setUdpEnabled(false));
+        server.start();
+        group = new NioEventLoopGroup(1);
+    }
+
+    @AfterEach
+    void stop() {
+        if (observer != null) observer.disconnect();
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+        server.shutdown();
+    }
+
+    @Test
+    void lineResentAfterResumeIsRelayedOnce() throws Exception {
+        BlockingQueue<String> seen = new LinkedBlockingQueue<>();
+        observer = new GameClient("127.0.0.1", server.getPort(), "observer", group);
+        observer.setTransport(TransportType.NIO);
+        observer.setUdpEnabled(false);
+        observer.setMessageListener(message -> seen.add(message.getContent()));
+        observer.connect().get(5, TimeUnit.SECONDS);
+
+        BlockingQueue<NetworkMessage> inbox = new LinkedBlockingQueue<>();
+        Channel first = open(inbox);
+        first.writeAndFlush(new HelloMessage("sender"));
+        WelcomeMessage welcome = next(inbox, WelcomeMessage.class);
+        first.writeAndFlush(chat(welcome.getPlayerId(), 1, "one"));
+        // the echo proves the line was relayed before the connection goes away
+        assertEquals("one", nextLine(inbox).getContent());
+        first.close().syncUninterruptibly();
+
+        inbox.clear();
+        Channel second = open(inbox);
+        second.writeAndFlush(new ResumeMessage(welcome.getSessionToken(), 0, "sender"));
+        WelcomeMessage resumed = next(inbox, WelcomeMessage.class);
+        assertEquals(welcome.getSessionToken(), resumed.getSessionToken());
+        // the client cannot tell whether "one" got through, so it sends it again
+        second.write(chat(resumed.getPlayerId(), 1, "one"));
+        second.writeAndFlush(chat(resumed.getPlayerId(), 2, "two"));
+
+        // lines are relayed in order, so a duplicate "one" would arrive before "two"
+        List<String> lines = new ArrayList<>();
+        String line;
+        do {
+            line = seen.poll(5, TimeUnit.SECONDS);
+            assertNotNull(line, "timed out waiting for \"two\"");
+            lines.add(line);
+        } while (!line.equals("two"));
+        assertEquals(1, lines.stream().filter("one"::equals).count(), lines.toString());
+        second.close().syncUninterruptibly();
+    }
+
+    private static ChatMessage chat(int playerId, long senderSequence, String content) {
+        ChatMessage chat = new ChatMessage(playerId, "sender", content);
+        chat.setSenderSequence(senderSequence);
+        return chat;
+    }
+
+    private static <T extends NetworkMessage> T next(BlockingQueue<NetworkMessage> inbox, Class<T> type)
+            throws InterruptedException {
+        while (true) {
+            NetworkMessage message = inbox.poll(5, TimeUnit.SECONDS);
+            assertNotNull(message, "timed out waiting for " + type.getSimpleName());
+            if (type.isInstance(message)) return type.cast(message);
+        }
+    }
+
+    /** The next chat line from a player; the server's join and leave announcements are skipped. */
+    private static ChatMessage nextLine(BlockingQueue<NetworkMessage> inbox) throws InterruptedException {
+        while (true) {
+            ChatMessage line = next(inbox, ChatMessage.class);
+            if (line.getSenderId() != NetworkConstants.SERVER_PLAYER_ID) return line;
+        }
+    }
+
+    /** A bare protocol connection, so the test decides exactly what goes on the wire. */
+    private Channel open(BlockingQueue<NetworkMessage> inbox) {
+        return new Bootstrap()
+                .group(group)
+                .channel(NioSocketChannel.class)
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ProtocolSession.install(ch, System.currentTimeMillis());
+                        ch.pipeline().addLast(
+                                new LengthFieldBasedFrameDecoder(1 << 20, 0, 4, 0, 4),
+                                new GameMessageDecoder(),
+                                new SimpleChannelInboundHandler<NetworkMessage>() {
+                                    @Override
+                                    protected void channelRead0(ChannelHandlerContext ctx, NetworkMessage msg) {
+                                        inbox.add(msg);
+                                    }
+                                },
+                                new LengthFieldPrepender(4),
+                                new GameMessageEncoder());
+                    }
+                })
+                .connect("127.0.0.1", server.getPort()).syncUninterruptibly().channel();
+    }
+}